@@ -0,0 +1,292 @@
+package it.polimi.mypolihub_spa.assets;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build-time step (run by the exec plugin at process-classes) that post-processes the
+ * copied static folder:
+ * <ul>
+ * <li>writes a content-hashed copy of every JS module and stylesheet and an asset-manifest.json;</li>
+ * <li>injects an import map and the stylesheet manifest into the entry pages, so modules keep
+ * importing each other by their plain paths;</li>
+ * <li>bundles the runtime templates into templates/bundle.json;</li>
+ * <li>writes .gz (and .br, when the brotli CLI is installed) variants of the text assets.</li>
+ * </ul>
+ * Reads from the source folder and writes to the output folder, so it can run on every
+ * incremental build.
+ * <p>
+ * Build tool only: it lives outside src/main and is launched as a single source file
+ * ({@code java AssetPipeline.java <source> <output>}), so it never reaches the application jar.
+ * It can only use the JDK.
+ */
+public final class AssetPipeline {
+
+    private static final String MANIFEST = "asset-manifest.json";
+    private static final String TEMPLATE_BUNDLE = "templates/bundle.json";
+
+    // name.0123456789.js: must stay in sync with AssetCacheControlFilter.FINGERPRINTED
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*\\.[0-9a-f]{10}\\.(js|css)$");
+
+    private static final int HASH_LENGTH = 10;
+    private static final int MIN_COMPRESS_SIZE = 1024;
+    private static final Set<String> FINGERPRINT_DIRS = Set.of("js", "css");
+    private static final Set<String> COMPRESSIBLE = Set.of("js", "css", "html", "json", "svg");
+    private static final Pattern ASSET_ATTRIBUTE = Pattern.compile("(href|src)=\"([^\"]+)\"");
+
+    private final Path source;
+    private final Path output;
+    private final Map<String, String> manifest = new TreeMap<>();
+
+    private AssetPipeline(Path source, Path output) {
+        this.source = source;
+        this.output = output;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: AssetPipeline <source static dir> <output static dir>");
+        }
+
+        Path source = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        if (!Files.isDirectory(source) || !Files.isDirectory(output)) {
+            System.out.println("[assets] No static folder, nothing to do");
+            return;
+        }
+
+        new AssetPipeline(source, output).run();
+    }
+
+    private void run() throws IOException {
+        deleteGenerated();
+
+        for (String dir : FINGERPRINT_DIRS) {
+            for (Path file : files(source.resolve(dir))) {
+                fingerprint(file);
+            }
+        }
+        writeTemplateBundle();
+
+        try (Stream<Path> pages = Files.list(source)) {
+            for (Path page : pages.filter(p -> p.toString().endsWith(".html")).toList()) {
+                writeEntryPage(page);
+            }
+        }
+        Files.writeString(output.resolve(MANIFEST), toJson(manifest));
+
+        boolean brotli = brotliAvailable();
+        int compressed = 0;
+        for (Path file : files(output)) {
+            if (COMPRESSIBLE.contains(extension(file)) && Files.size(file) >= MIN_COMPRESS_SIZE) {
+                compressed += gzip(file) ? 1 : 0;
+                if (brotli) {
+                    brotli(file);
+                }
+            }
+        }
+
+        System.out.printf("[assets] %d fingerprinted, %d gzipped%s%n", manifest.size(), compressed,
+                brotli ? ", brotli enabled" : ", brotli CLI not found");
+    }
+
+    // -----------------------------------------------------------------------------------------
+
+    private void deleteGenerated() throws IOException {
+        for (Path file : files(output)) {
+            String name = file.getFileName().toString();
+            if (FINGERPRINTED.matcher(name).matches() || name.endsWith(".gz") || name.endsWith(".br")) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void fingerprint(Path file) throws IOException {
+        String extension = extension(file);
+        if (!extension.equals("js") && !extension.equals("css")) {
+            return;
+        }
+
+        byte[] content = Files.readAllBytes(file);
+        String relative = source.relativize(file).toString().replace('\\', '/');
+
+        String stem = relative.substring(0, relative.length() - extension.length() - 1);
+        String hashed = stem + "." + hash(content) + "." + extension;
+
+        Path target = output.resolve(hashed);
+        Files.createDirectories(target.getParent());
+        Files.write(target, content);
+
+        manifest.put("/" + relative, "/" + hashed);
+    }
+
+    private void writeTemplateBundle() throws IOException {
+        Path templates = source.resolve("templates");
+        Map<String, String> bundle = new TreeMap<>();
+
+        for (Path file : files(templates)) {
+            if (extension(file).equals("html")) {
+                String relative = source.relativize(file).toString().replace('\\', '/');
+                bundle.put("/" + relative, Files.readString(file));
+            }
+        }
+
+        if (!bundle.isEmpty()) {
+            Path target = output.resolve(TEMPLATE_BUNDLE);
+            Files.createDirectories(target.getParent());
+            Files.writeString(target, toJson(bundle));
+        }
+    }
+
+    private void writeEntryPage(Path page) throws IOException {
+        String html = Files.readString(page);
+
+        Matcher matcher = ASSET_ATTRIBUTE.matcher(html);
+        StringBuilder rewritten = new StringBuilder();
+        while (matcher.find()) {
+            String hashed = manifest.getOrDefault(matcher.group(2), matcher.group(2));
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(matcher.group(1) + "=\"" + hashed + "\""));
+        }
+        matcher.appendTail(rewritten);
+        html = rewritten.toString();
+
+        Map<String, String> modules = new TreeMap<>();
+        Map<String, String> styles = new TreeMap<>();
+        manifest.forEach((path, hashed) -> (path.endsWith(".js") ? modules : styles).put(path, hashed));
+
+        // Relative imports resolve to the plain paths, which the import map redirects
+        String injected = "    <script type=\"importmap\">{\"imports\":" + toJson(modules) + "}</script>\n"
+                + "    <script type=\"application/json\" id=\"asset-manifest\">" + toJson(styles) + "</script>\n";
+
+        int head = html.indexOf("</head>");
+        if (head >= 0) {
+            html = html.substring(0, head) + injected + html.substring(head);
+        }
+
+        Files.writeString(output.resolve(page.getFileName().toString()), html);
+    }
+
+    // -----------------------------------------------------------------------------------------
+
+    private static boolean gzip(Path file) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        Path target = file.resolveSibling(file.getFileName() + ".gz");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        }
+
+        // Not worth a Content-Encoding round trip: serve the original
+        if (Files.size(target) >= content.length) {
+            Files.delete(target);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            return exec(List.of("brotli", "--version")) == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void brotli(Path file) throws IOException {
+        exec(List.of("brotli", "--best", "--force", "--keep", file.toString()));
+    }
+
+    private static int exec(List<String> command) throws IOException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return -1;
+            }
+            return process.exitValue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    // -----------------------------------------------------------------------------------------
+
+    private static List<Path> files(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toJson(Map<String, String> map) {
+        StringBuilder json = new StringBuilder("{");
+        map.forEach((key, value) -> {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(quote(key)).append(':').append(quote(value));
+        });
+        return json.append('}').toString();
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                // Keeps the JSON safe to inline in a <script> element
+                case '<' -> quoted.append("\\u003c");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -1,4 +1,4 @@
 package it.polimi.mypolihub_spa.DTO;
 
-public record BulkResultUpdateDTO(Integer registrationId, Integer resultId) {
+public record BulkResultUpdateDTO(Integer registrationId, Integer resultId, Integer version) {
 }
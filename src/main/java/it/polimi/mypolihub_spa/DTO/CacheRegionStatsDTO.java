@@ -0,0 +1,39 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import org.hibernate.stat.CacheRegionStatistics;
+
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private long elementCountInMemory;
+
+    public CacheRegionStatsDTO(CacheRegionStatistics statistics) {
+        region = statistics.getRegionName();
+        hitCount = statistics.getHitCount();
+        missCount = statistics.getMissCount();
+        putCount = statistics.getPutCount();
+        elementCountInMemory = statistics.getElementCountInMemory();
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getPutCount() {
+        return putCount;
+    }
+
+    public long getElementCountInMemory() {
+        return elementCountInMemory;
+    }
+}
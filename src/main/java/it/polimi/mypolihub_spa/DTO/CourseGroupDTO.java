@@ -0,0 +1,5 @@
+package it.polimi.mypolihub_spa.DTO;
+
+public record CourseGroupDTO(Integer courseId, String courseName, Integer majorId, String majorName,
+        Integer yearOfStudy) {
+}
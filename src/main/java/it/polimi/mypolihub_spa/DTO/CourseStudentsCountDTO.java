@@ -0,0 +1,4 @@
+package it.polimi.mypolihub_spa.DTO;
+
+public record CourseStudentsCountDTO(Integer courseId, Long students) {
+}
@@ -0,0 +1,10 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.List;
+
+import it.polimi.mypolihub_spa.entity.Semester;
+
+public record DashboardCourseDTO(Integer id, String name, Integer cfu, Semester semester, String year,
+        String professorName, String professorSurname, long studentsCount, List<DashboardMajorDTO> majors,
+        List<DashboardExamDTO> exams) {
+}
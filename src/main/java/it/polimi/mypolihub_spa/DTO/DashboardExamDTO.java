@@ -0,0 +1,8 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.time.LocalDateTime;
+
+// waitlistPosition is null unless the student is waiting for a seat
+public record DashboardExamDTO(Integer id, Integer courseId, LocalDateTime date, boolean registered,
+        boolean published, Integer capacity, int seatsTaken, Long waitlistPosition) {
+}
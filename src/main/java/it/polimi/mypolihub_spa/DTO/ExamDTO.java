@@ -8,11 +8,15 @@ public class ExamDTO {
     private Integer id;
     private LocalDateTime date;
     private CourseDTO course;
+    private Integer capacity;
+    private int seatsTaken;
 
     public ExamDTO(Exam exam) {
         id = exam.getId();
         date = exam.getDate();
         course = new CourseDTO(exam.getCourse());
+        capacity = exam.getCapacity();
+        seatsTaken = exam.getSeatsTaken();
     }
 
     public Integer getId() {
@@ -26,4 +30,12 @@ public class ExamDTO {
     public CourseDTO getCourse() {
         return course;
     }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
 }
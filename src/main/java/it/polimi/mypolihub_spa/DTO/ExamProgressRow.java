@@ -0,0 +1,17 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.time.LocalDateTime;
+
+// Row of ExamRepository.findExamProgressOfProfessor (native query projection)
+public interface ExamProgressRow {
+    Integer getCourseId();
+    String getCourseName();
+    Integer getExamId();
+    LocalDateTime getExamDate();
+    long getNotInserted();
+    long getInserted();
+    long getPublished();
+    long getRejected();
+    long getVerbalized();
+    long getReports();
+}
@@ -0,0 +1,13 @@
+package it.polimi.mypolihub_spa.DTO;
+
+// Outcome of a registration: a seat, or a place (1-based) on the waitlist of a full exam
+public record ExamRegistrationDTO(boolean waitlisted, Long waitlistPosition) {
+
+    public static ExamRegistrationDTO registered() {
+        return new ExamRegistrationDTO(false, null);
+    }
+
+    public static ExamRegistrationDTO waitlisted(long position) {
+        return new ExamRegistrationDTO(true, position);
+    }
+}
@@ -0,0 +1,34 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExamSessionReportDTO {
+    private int requested;
+    private int scheduled;
+    private boolean preview;
+    private final List<String> errors = new ArrayList<>();
+    private final List<String> conflicts = new ArrayList<>();
+
+    public int getRequested() { return requested; }
+    public int getScheduled() { return scheduled; }
+    public boolean isPreview() { return preview; }
+    public List<String> getErrors() { return errors; }
+    public List<String> getConflicts() { return conflicts; }
+
+    public void setRequested(int requested) { this.requested = requested; }
+    public void setScheduled(int scheduled) { this.scheduled = scheduled; }
+    public void setPreview(boolean preview) { this.preview = preview; }
+
+    public void addError(String error) {
+        errors.add(error);
+    }
+
+    public void addConflict(String conflict) {
+        conflicts.add(conflict);
+    }
+
+    public boolean hasProblems() {
+        return !errors.isEmpty() || !conflicts.isEmpty();
+    }
+}
@@ -0,0 +1,6 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.List;
+
+public record GradeImportReportDTO(int updated, int skipped, List<String> errors) {
+}
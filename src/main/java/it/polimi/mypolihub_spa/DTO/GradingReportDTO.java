@@ -0,0 +1,40 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of the grading-session flushes since the last report: the new version of each
+ * written registration, the rows another grader changed first and the rejected edits.
+ */
+public record GradingReportDTO(
+        Map<Integer, Integer> versions,
+        List<RegistrationDTO> conflicts,
+        Map<Integer, String> errors) {
+
+    public static GradingReportDTO empty() {
+        return new GradingReportDTO(Map.of(), List.of(), Map.of());
+    }
+
+    public boolean hasFailures() {
+        return !conflicts.isEmpty() || !errors.isEmpty();
+    }
+
+    // The later report wins for a registration that appears in both
+    public GradingReportDTO merge(GradingReportDTO later) {
+        Map<Integer, Integer> mergedVersions = new HashMap<>(versions);
+        mergedVersions.putAll(later.versions());
+
+        Map<Integer, RegistrationDTO> mergedConflicts = new LinkedHashMap<>();
+        conflicts.forEach(c -> mergedConflicts.put(c.getId(), c));
+        later.conflicts().forEach(c -> mergedConflicts.put(c.getId(), c));
+
+        Map<Integer, String> mergedErrors = new LinkedHashMap<>(errors);
+        mergedErrors.putAll(later.errors());
+
+        return new GradingReportDTO(mergedVersions, new ArrayList<>(mergedConflicts.values()), mergedErrors);
+    }
+}
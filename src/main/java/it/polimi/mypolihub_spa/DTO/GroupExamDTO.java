@@ -0,0 +1,7 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.time.LocalDateTime;
+
+public record GroupExamDTO(Integer courseId, String courseName, Integer majorId, Integer yearOfStudy,
+        LocalDateTime date) {
+}
@@ -0,0 +1,7 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.time.LocalDateTime;
+
+public record OverviewExamDTO(Integer id, LocalDateTime date, long notInserted, long inserted, long published,
+        long rejected, long verbalized, long reports) {
+}
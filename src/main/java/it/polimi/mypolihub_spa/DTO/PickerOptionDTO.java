@@ -0,0 +1,4 @@
+package it.polimi.mypolihub_spa.DTO;
+
+public record PickerOptionDTO(Integer id, String label) {
+}
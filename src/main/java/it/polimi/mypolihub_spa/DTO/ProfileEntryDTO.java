@@ -0,0 +1,8 @@
+package it.polimi.mypolihub_spa.DTO;
+
+/**
+ * One line of a recording summary: samples (or events) and their weight, in bytes for
+ * allocations and milliseconds for contention.
+ */
+public record ProfileEntryDTO(String label, long count, long weight) {
+}
@@ -0,0 +1,10 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.time.Instant;
+
+/**
+ * A flight recording: running ones have no file size yet.
+ */
+public record RecordingDTO(String name, String settings, Instant startedAt, long durationSeconds, boolean running,
+        long sizeBytes) {
+}
@@ -0,0 +1,7 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.List;
+
+public record RecordingSummaryDTO(String name, long executionSamples, List<ProfileEntryDTO> hotMethods,
+        List<ProfileEntryDTO> allocations, List<ProfileEntryDTO> contention) {
+}
@@ -2,10 +2,11 @@ package it.polimi.mypolihub_spa.DTO;
 
 import java.util.Set;
 
-import it.polimi.mypolihub_spa.entity.Registration;
+import it.polimi.mypolihub_spa.entity.BaseRegistration;
 
 public class RegistrationDTO {
     private Integer id;
+    private Integer version;
     private StudentDTO student;
     private String status;
     private ExamDTO exam;
@@ -17,8 +18,9 @@ public class RegistrationDTO {
     private final static int RESULT_18_ID = 5;
     private final boolean canBeDeclined;
 
-    public RegistrationDTO(Registration registration) {
+    public RegistrationDTO(BaseRegistration registration) {
         id = registration.getId();
+        version = registration.getVersion();
         student = new StudentDTO(registration.getStudent());
         status = registration.getStatus().getValue();
 
@@ -33,6 +35,10 @@ public class RegistrationDTO {
         return id;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
     public StudentDTO getStudent() {
         return student;
     }
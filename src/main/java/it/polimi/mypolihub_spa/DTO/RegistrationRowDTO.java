@@ -0,0 +1,29 @@
+package it.polimi.mypolihub_spa.DTO;
+
+/**
+ * Flat row of a streamed roster or report: the same fields as RegistrationDTO minus
+ * the exam, which is written once in the response header.
+ */
+public record RegistrationRowDTO(
+        Integer id,
+        Integer version,
+        String studentName,
+        String studentSurname,
+        String studentEmail,
+        Integer studentNumber,
+        Integer majorId,
+        String majorName,
+        String degreeLevelName,
+        Integer degreeLevelYearsOfStudy,
+        String status,
+        Integer resultId,
+        String result) {
+
+    // Archived registrations have no version
+    public RegistrationRowDTO(Integer id, String studentName, String studentSurname, String studentEmail,
+            Integer studentNumber, Integer majorId, String majorName, String degreeLevelName,
+            Integer degreeLevelYearsOfStudy, String status, Integer resultId, String result) {
+        this(id, null, studentName, studentSurname, studentEmail, studentNumber, majorId, majorName,
+                degreeLevelName, degreeLevelYearsOfStudy, status, resultId, result);
+    }
+}
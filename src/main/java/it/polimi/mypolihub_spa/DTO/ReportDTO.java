@@ -4,8 +4,8 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
-import it.polimi.mypolihub_spa.entity.Registration;
-import it.polimi.mypolihub_spa.entity.Report;
+import it.polimi.mypolihub_spa.entity.BaseRegistration;
+import it.polimi.mypolihub_spa.entity.BaseReport;
 
 public class ReportDTO {
     private Integer id;
@@ -13,12 +13,12 @@ public class ReportDTO {
     private Instant timestamp;
     private List<RegistrationDTO> registrations = new ArrayList<>();
 
-    public ReportDTO(Report report, List<Registration> registrations) {
+    public ReportDTO(BaseReport report, List<? extends BaseRegistration> registrations) {
         id = report.getId();
         exam = new ExamDTO(report.getExam());
         timestamp = report.getTimestamp();
 
-        for (Registration registration : registrations) {
+        for (BaseRegistration registration : registrations) {
             RegistrationDTO registrationDTO = new RegistrationDTO(registration);
 
             this.registrations.add(registrationDTO);
@@ -0,0 +1,5 @@
+package it.polimi.mypolihub_spa.DTO;
+
+// An exam room: physical seats and empty seats to leave between two students
+public record RoomDTO(String name, int seats, int spacing) {
+}
@@ -0,0 +1,4 @@
+package it.polimi.mypolihub_spa.DTO;
+
+public record SeatRowDTO(String room, Integer seat, Integer number, String surname, String name, String major) {
+}
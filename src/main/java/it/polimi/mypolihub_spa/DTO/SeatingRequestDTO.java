@@ -0,0 +1,6 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.List;
+
+public record SeatingRequestDTO(List<RoomDTO> rooms, boolean separateMajors) {
+}
@@ -0,0 +1,4 @@
+package it.polimi.mypolihub_spa.DTO;
+
+public record SeatingRoomDTO(String room, long students, Integer firstSeat, Integer lastSeat) {
+}
@@ -0,0 +1,6 @@
+package it.polimi.mypolihub_spa.DTO;
+
+import java.util.List;
+
+public record StudentDashboardDTO(List<DashboardCourseDTO> courses, List<DashboardExamDTO> upcomingExams) {
+}
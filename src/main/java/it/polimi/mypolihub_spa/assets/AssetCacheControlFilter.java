@@ -0,0 +1,41 @@
+package it.polimi.mypolihub_spa.assets;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Fingerprinted assets never change under the same URL, so they are cached for a year
+ * without revalidation. Everything else (entry pages, templates, plain asset paths) is
+ * revalidated on every use instead of re-downloaded, replacing the no-store default of
+ * Spring Security.
+ */
+public class AssetCacheControlFilter extends OncePerRequestFilter {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String REVALIDATE = "private, no-cache";
+
+    // name.0123456789.js, as written by the build-time AssetPipeline (src/build/java)
+    static final Pattern FINGERPRINTED = Pattern.compile(".*\\.[0-9a-f]{10}\\.(js|css)$");
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean fingerprinted = FINGERPRINTED.matcher(request.getRequestURI()).matches();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, fingerprinted ? IMMUTABLE : REVALIDATE);
+
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,74 @@
+package it.polimi.mypolihub_spa.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import it.polimi.mypolihub_spa.datasource.ReadYourWritesTracker;
+import it.polimi.mypolihub_spa.datasource.ReplicaHealthMonitor;
+import it.polimi.mypolihub_spa.datasource.ReplicaRoutingDataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    public DataSource primaryDataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password) {
+        return buildPool("primary", url, username, password, false);
+    }
+
+    @Bean
+    public DataSource replicaDataSource(
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username}") String username,
+            @Value("${app.datasource.replica.password}") String password) {
+        return buildPool("replica", url, username, password, true);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${app.datasource.replica.read-your-writes-window-ms:5000}") long windowMillis) {
+        return new ReadYourWritesTracker(windowMillis);
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(@Qualifier("replicaDataSource") DataSource replica) {
+        return new ReplicaHealthMonitor(replica);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReadYourWritesTracker readYourWritesTracker,
+            ReplicaHealthMonitor replicaHealthMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica,
+                readYourWritesTracker, replicaHealthMonitor);
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private HikariDataSource buildPool(String name, String url, String username, String password, boolean readOnly) {
+        HikariDataSource pool = new HikariDataSource();
+
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setReadOnly(readOnly);
+
+        return pool;
+    }
+}
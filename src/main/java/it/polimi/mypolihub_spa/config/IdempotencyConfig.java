@@ -0,0 +1,51 @@
+package it.polimi.mypolihub_spa.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import it.polimi.mypolihub_spa.idempotency.IdempotencyFilter;
+import it.polimi.mypolihub_spa.idempotency.IdempotencyStore;
+import it.polimi.mypolihub_spa.idempotency.InMemoryIdempotencyStore;
+import it.polimi.mypolihub_spa.idempotency.JdbcIdempotencyStore;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.idempotency.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore() {
+        return new InMemoryIdempotencyStore(maxEntries, Duration.ofMinutes(ttlMinutes));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+    public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate) {
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+
+        return new JdbcIdempotencyStore(jdbcTemplate, new InMemoryIdempotencyStore(maxEntries, ttl), ttl);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(store));
+
+        registration.addUrlPatterns("/api/*");
+        // After the Spring Security chain, so that keys can be scoped to the authenticated user
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+
+        return registration;
+    }
+}
@@ -0,0 +1,48 @@
+package it.polimi.mypolihub_spa.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * With the "lazy" profile every bean is created on first use, except the ones below: the
+ * SPA API controllers (and through them the services and repositories they use), security
+ * and the persistence layer, so that the first student request does not pay for them.
+ * Beans with {@code @Scheduled} methods stay eager too: nothing else references jobs like
+ * ArchiveJob, and their schedules are only registered once the bean exists.
+ * The admin panel, Thymeleaf and the rest are created when first needed.
+ */
+@Configuration
+@Profile("lazy")
+public class LazyInitConfig {
+
+    private static final String API_PACKAGE = "it.polimi.mypolihub_spa.controller.api";
+
+    @Bean
+    static LazyInitializationExcludeFilter requestPathBeans() {
+        return (beanName, definition, beanType) -> DataSource.class.isAssignableFrom(beanType)
+                || EntityManagerFactory.class.isAssignableFrom(beanType)
+                || SecurityFilterChain.class.isAssignableFrom(beanType)
+                || (beanType.getPackageName().equals(API_PACKAGE) && !beanType.getSimpleName().startsWith("Admin"))
+                || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        boolean[] found = { false };
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType), method -> found[0] = true,
+                method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                        || AnnotatedElementUtils.hasAnnotation(method, Schedules.class));
+        return found[0];
+    }
+}
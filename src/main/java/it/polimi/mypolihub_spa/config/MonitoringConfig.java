@@ -0,0 +1,49 @@
+package it.polimi.mypolihub_spa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import it.polimi.mypolihub_spa.monitoring.FirstRequestFilter;
+import it.polimi.mypolihub_spa.monitoring.MetricsDataSourcePostProcessor;
+import it.polimi.mypolihub_spa.monitoring.ServerTimingFilter;
+import it.polimi.mypolihub_spa.monitoring.StartupTimer;
+
+@Configuration
+public class MonitoringConfig {
+
+    @Bean
+    public FilterRegistrationBean<FirstRequestFilter> firstRequestFilter(StartupTimer startupTimer) {
+        FilterRegistrationBean<FirstRequestFilter> registration = new FilterRegistrationBean<>(new FirstRequestFilter(startupTimer));
+
+        registration.addUrlPatterns("/*");
+        // Outermost, so that the measured time includes the security chain
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+    }
+
+    // Static: a BeanPostProcessor must not pull this configuration in early
+    @Bean
+    @ConditionalOnProperty(name = "app.monitoring.request-metrics.enabled", havingValue = "true", matchIfMissing = true)
+    public static MetricsDataSourcePostProcessor metricsDataSourcePostProcessor() {
+        return new MetricsDataSourcePostProcessor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.monitoring.request-metrics.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${app.monitoring.server-timing.enabled:false}") boolean headerEnabled,
+            @Value("${app.monitoring.slow-request-ms:1000}") long slowRequestMillis) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(
+                new ServerTimingFilter(headerEnabled, slowRequestMillis));
+
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+
+        return registration;
+    }
+}
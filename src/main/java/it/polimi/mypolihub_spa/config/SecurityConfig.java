@@ -29,6 +29,7 @@ public class SecurityConfig {
             //API: role based
             .requestMatchers("/api/professor/**").hasAnyRole("PROFESSOR", "ADMIN")
             .requestMatchers("/api/student/**").hasAnyRole("STUDENT", "ADMIN")
+            .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
             //killswitch
             .requestMatchers("/api/**").denyAll()
@@ -0,0 +1,56 @@
+package it.polimi.mypolihub_spa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+import org.springframework.session.web.http.CookieSerializer;
+import org.springframework.session.web.http.DefaultCookieSerializer;
+
+import it.polimi.mypolihub_spa.session.CompactSessionSerializer;
+import it.polimi.mypolihub_spa.session.ExpiredSessionCleaner;
+
+/**
+ * Keeps HTTP sessions (security context and CSRF token included) in the shared database,
+ * so any node can serve any request. Other Spring Session stores can replace this class,
+ * everything else only sees the servlet HttpSession.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+@EnableJdbcHttpSession(cleanupCron = Scheduled.CRON_DISABLED)
+public class SessionStoreConfig {
+
+    @Bean
+    public ConversionService springSessionConversionService() {
+        CompactSessionSerializer serializer = new CompactSessionSerializer(getClass().getClassLoader());
+        GenericConversionService conversionService = new GenericConversionService();
+
+        conversionService.addConverter(Object.class, byte[].class, serializer::serialize);
+        conversionService.addConverter(byte[].class, Object.class, serializer::deserialize);
+
+        return conversionService;
+    }
+
+    // Same cookie as the servlet container, so logout and existing clients keep working
+    @Bean
+    public CookieSerializer cookieSerializer() {
+        DefaultCookieSerializer serializer = new DefaultCookieSerializer();
+
+        serializer.setCookieName("JSESSIONID");
+        serializer.setUseBase64Encoding(false);
+        serializer.setSameSite("Lax");
+
+        return serializer;
+    }
+
+    @Bean
+    public ExpiredSessionCleaner expiredSessionCleaner(JdbcTemplate jdbcTemplate,
+            @Value("${app.session.cleanup-batch-size:1000}") int batchSize) {
+        return new ExpiredSessionCleaner(jdbcTemplate, batchSize);
+    }
+}
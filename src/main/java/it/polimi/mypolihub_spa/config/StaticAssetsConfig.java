@@ -0,0 +1,35 @@
+package it.polimi.mypolihub_spa.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import jakarta.servlet.DispatcherType;
+
+import it.polimi.mypolihub_spa.assets.AssetCacheControlFilter;
+
+@Configuration
+public class StaticAssetsConfig {
+
+    @Bean
+    public FilterRegistrationBean<AssetCacheControlFilter> assetCacheControlFilter() {
+        FilterRegistrationBean<AssetCacheControlFilter> registration = new FilterRegistrationBean<>(new AssetCacheControlFilter());
+
+        registration.addUrlPatterns("/js/*", "/css/*", "/img/*", "/templates/*", "/professor.html", "/student.html");
+        // The entry pages are reached through a forward from /app/professor and /app/student
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.FORWARD);
+
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> templateBundleEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+
+        // A single payload for all the runtime templates: one 304 per page load once cached
+        registration.addUrlPatterns("/templates/bundle.json");
+
+        return registration;
+    }
+}
@@ -12,16 +12,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
+import it.polimi.mypolihub_spa.DTO.AdminCountersDTO;
+import it.polimi.mypolihub_spa.DTO.ExamSessionReportDTO;
 import it.polimi.mypolihub_spa.DTO.UserImportReportDTO;
 import it.polimi.mypolihub_spa.entity.Role;
 import it.polimi.mypolihub_spa.entity.Semester;
-import it.polimi.mypolihub_spa.repository.CourseRepository;
-import it.polimi.mypolihub_spa.repository.DegreeLevelRepository;
-import it.polimi.mypolihub_spa.repository.MajorRepository;
-import it.polimi.mypolihub_spa.repository.ProfessorRepository;
-import it.polimi.mypolihub_spa.repository.UserRepository;
+import it.polimi.mypolihub_spa.service.AdminDashboardService;
+import it.polimi.mypolihub_spa.service.CourseImportService;
 import it.polimi.mypolihub_spa.service.CourseService;
 import it.polimi.mypolihub_spa.service.ExamService;
+import it.polimi.mypolihub_spa.service.ExamSessionService;
 import it.polimi.mypolihub_spa.service.MajorService;
 import it.polimi.mypolihub_spa.service.UserCreatorService;
 
@@ -39,22 +39,16 @@ public class AdminPanelController {
     private CourseService courseService;
 
     @Autowired
-    private ExamService examService;
-
-    @Autowired
-    private UserRepository userRepository;
+    private CourseImportService courseImportService;
 
     @Autowired
-    private ProfessorRepository professorRepository;
-
-    @Autowired
-    private MajorRepository majorRepository;
+    private ExamService examService;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private ExamSessionService examSessionService;
 
     @Autowired
-    private DegreeLevelRepository degreeLevelRepository;
+    private AdminDashboardService adminDashboardService;
 
     @GetMapping("/panel")
     public String panel(Model model) {
@@ -70,6 +64,7 @@ public class AdminPanelController {
             @RequestParam(value = "majorId", required = false) Integer majorId,
             Model model) {
         UserImportReportDTO report = userCreatorService.importUsersFromUpload(file, role, defaultPassword, majorId);
+        adminDashboardService.evictCounters();
 
         fillPanelModel(model, report);
 
@@ -85,6 +80,7 @@ public class AdminPanelController {
             @RequestParam(value = "majorId", required = false) Integer majorId,
             Model model) {
         UserImportReportDTO report = userCreatorService.createSingleUser(role, name, surname, password, majorId);
+        adminDashboardService.evictCounters();
 
         fillPanelModel(model, report);
 
@@ -117,6 +113,7 @@ public class AdminPanelController {
         Model model) {
         try {
             courseService.createCourse(courseName, cfu, semester, majorIds, yearsOfStudy, professorId);
+            adminDashboardService.evictCounters();
             model.addAttribute("majorMsg", "Corso creato: " + courseName);
         } catch (IllegalArgumentException e) {
             model.addAttribute("majorError", e.getMessage());
@@ -127,11 +124,22 @@ public class AdminPanelController {
         return "admin/panel";
     }
 
+    @PostMapping("/import-courses")
+    public String importCourses(@RequestParam("file") MultipartFile file, Model model) {
+        UserImportReportDTO report = courseImportService.importCoursesFromUpload(file);
+        adminDashboardService.evictCounters();
+
+        fillPanelModel(model, report);
+
+        return "admin/panel";
+    }
+
     @PostMapping("/exams")
     public String createExamCall(@RequestParam("courseId") Integer courseId, @RequestParam("date") LocalDateTime date,
+            @RequestParam(value = "capacity", required = false) Integer capacity,
             Model model) {
         try {
-            examService.addExamCall(courseId, date);
+            examService.addExamCall(courseId, date, capacity);
             model.addAttribute("examMsg", "Esame aggiunto");
         } catch (IllegalArgumentException e) {
             model.addAttribute("examError", e.getMessage());
@@ -142,13 +150,28 @@ public class AdminPanelController {
         return "admin/panel";
     }
 
+    @PostMapping("/exam-sessions")
+    public String scheduleExamSession(@RequestParam("calls") String calls,
+            @RequestParam(value = "preview", defaultValue = "false") boolean preview,
+            Model model) {
+        ExamSessionReportDTO sessionReport = examSessionService.scheduleSession(calls, preview);
+
+        model.addAttribute("sessionReport", sessionReport);
+        model.addAttribute("sessionCalls", sessionReport.getScheduled() > 0 ? "" : calls);
+
+        fillPanelModel(model, null);
+
+        return "admin/panel";
+    }
+
+    // Courses and professors are not listed here: the pickers load them from /api/admin
     private void fillPanelModel(Model model, Object report) {
-        model.addAttribute("majors", majorRepository.findAllWithDegreeLevel());
-        model.addAttribute("degreeLevels", degreeLevelRepository.findAll());
-        model.addAttribute("usersCount", userRepository.count());
-        model.addAttribute("coursesCount", courseRepository.count());
-        model.addAttribute("professors", professorRepository.findAllWithUser());
-        model.addAttribute("courses", courseRepository.findAll());
+        AdminCountersDTO counters = adminDashboardService.getCounters();
+
+        model.addAttribute("majors", adminDashboardService.getMajors());
+        model.addAttribute("degreeLevels", adminDashboardService.getDegreeLevels());
+        model.addAttribute("usersCount", counters.users());
+        model.addAttribute("coursesCount", counters.courses());
         model.addAttribute("report", report);
     }
 }
@@ -0,0 +1,90 @@
+package it.polimi.mypolihub_spa.controller;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import it.polimi.mypolihub_spa.monitoring.ProfilingService;
+
+// ADMIN only, like the rest of /admin (see SecurityConfig)
+@Controller
+@RequestMapping("/admin/profiling")
+public class ProfilingController {
+
+    @Autowired
+    private ProfilingService profilingService;
+
+    @GetMapping
+    public String recordings(Model model) {
+        fillModel(model);
+
+        return "admin/profiling";
+    }
+
+    @PostMapping("/start")
+    public String start(@RequestParam("settings") String settings,
+            @RequestParam("durationSeconds") long durationSeconds,
+            Model model) {
+        try {
+            profilingService.start(settings, durationSeconds);
+            model.addAttribute("profilingMsg", "Registrazione avviata per " + durationSeconds + " s");
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("profilingError", e.getMessage());
+        }
+
+        fillModel(model);
+
+        return "admin/profiling";
+    }
+
+    @PostMapping("/{name}/stop")
+    public String stop(@PathVariable String name, Model model) {
+        try {
+            profilingService.stop(name);
+            model.addAttribute("profilingMsg", "Registrazione fermata: " + name);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("profilingError", e.getMessage());
+        }
+
+        fillModel(model);
+
+        return "admin/profiling";
+    }
+
+    @GetMapping("/{name}")
+    public String summary(@PathVariable String name, Model model) {
+        model.addAttribute("summary", profilingService.summarize(name));
+        fillModel(model);
+
+        return "admin/profiling";
+    }
+
+    @GetMapping("/{name}/download")
+    public ResponseEntity<Resource> download(@PathVariable String name) {
+        Path file = profilingService.getFile(name);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    private void fillModel(Model model) {
+        model.addAttribute("recordings", profilingService.list());
+        model.addAttribute("settingsProfiles", ProfilingService.SETTINGS.stream().sorted().toList());
+    }
+}
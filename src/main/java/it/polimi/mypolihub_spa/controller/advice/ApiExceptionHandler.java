@@ -2,6 +2,7 @@ package it.polimi.mypolihub_spa.controller.advice;
 
 import java.time.Instant;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -11,6 +12,9 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import jakarta.servlet.http.HttpServletRequest;
 
+import it.polimi.mypolihub_spa.DTO.RegistrationDTO;
+import it.polimi.mypolihub_spa.exception.RegistrationConflictException;
+
 @RestControllerAdvice(annotations = RestController.class)
 public class ApiExceptionHandler {
 
@@ -24,6 +28,23 @@ public class ApiExceptionHandler {
         return build(HttpStatus.BAD_REQUEST, e.getMessage(), req.getRequestURI());
     }
 
+    @ExceptionHandler(RegistrationConflictException.class)
+    public ResponseEntity<ConflictError> handleConflict(RegistrationConflictException e, HttpServletRequest req) {
+        ConflictError body = new ConflictError(
+                HttpStatus.CONFLICT.value(),
+                e.getMessage(),
+                req.getRequestURI(),
+                Instant.now().toString(),
+                e.getCurrent()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLock(OptimisticLockingFailureException e, HttpServletRequest req) {
+        return build(HttpStatus.CONFLICT, "Dati modificati da un altro utente, ricarica e riprova.", req.getRequestURI());
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<ApiError> handleState(IllegalStateException e, HttpServletRequest req) {
         return build(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(), req.getRequestURI());
@@ -45,4 +66,6 @@ public class ApiExceptionHandler {
     }
 
     public record ApiError(int status, String message, String path, String timestamp) {}
+
+    public record ConflictError(int status, String message, String path, String timestamp, RegistrationDTO current) {}
 }
@@ -0,0 +1,33 @@
+package it.polimi.mypolihub_spa.controller.advice;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import it.polimi.mypolihub_spa.monitoring.RequestMetrics;
+
+/**
+ * Marks the moment the API response body is handed to the message converter, so that
+ * ServerTimingFilter can tell serialization apart from the handler's own work.
+ */
+@RestControllerAdvice(annotations = RestController.class)
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+            Class<? extends HttpMessageConverter<?>> converterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestMetrics.markSerializationStart();
+        return body;
+    }
+}
@@ -0,0 +1,46 @@
+package it.polimi.mypolihub_spa.controller.api;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import it.polimi.mypolihub_spa.DTO.CacheRegionStatsDTO;
+import it.polimi.mypolihub_spa.DTO.PickerPageDTO;
+import it.polimi.mypolihub_spa.service.AdminDashboardService;
+import it.polimi.mypolihub_spa.service.CacheStatisticsService;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminApiController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private AdminDashboardService adminDashboardService;
+
+    @GetMapping("/cache/stats")
+    public List<CacheRegionStatsDTO> getCacheStatistics() {
+        return cacheStatisticsService.getRegionStatistics();
+    }
+
+    @GetMapping("/courses")
+    public PickerPageDTO searchCourses(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return adminDashboardService.searchCourses(q, page, size);
+    }
+
+    @GetMapping("/professors")
+    public PickerPageDTO searchProfessors(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return adminDashboardService.searchProfessors(q, page, size);
+    }
+}
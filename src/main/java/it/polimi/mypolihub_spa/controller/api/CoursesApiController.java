@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 import it.polimi.mypolihub_spa.DTO.CourseDTO;
 import it.polimi.mypolihub_spa.security.CustomUserDetails;
 import it.polimi.mypolihub_spa.service.CourseService;
+import it.polimi.mypolihub_spa.utils.SingleFlight;
 import it.polimi.mypolihub_spa.utils.SortUtility;
 
 @RestController
@@ -21,6 +22,10 @@ public class CoursesApiController {
     @Autowired
     private CourseService courseService;
 
+    // Keyed by user (and direction): coalesces the duplicate loads of a page opening or a reload burst
+    private final SingleFlight<List<Object>, List<CourseDTO>> professorCourses = new SingleFlight<>();
+    private final SingleFlight<Integer, List<CourseDTO>> studentCourses = new SingleFlight<>();
+
     // -----------------------------
 	// Professor operations
 	// -----------------------------
@@ -32,10 +37,14 @@ public class CoursesApiController {
         
         String sortDirection = SortUtility.getValidSortDirFrom(sortDir);
         
+        Integer professorId = principal.getId();
+
         if (sortDirection.equals(SortUtility.SORT_DIR_DESC)) {
-            return courseService.findCoursesByProfessorIdOrderByNameDesc(principal.getId());
+            return professorCourses.load(List.of(professorId, SortUtility.SORT_DIR_DESC),
+                    () -> courseService.findCoursesByProfessorIdOrderByNameDesc(professorId));
         } else {
-            return courseService.findCoursesByProfessorIdOrderByNameAsc(principal.getId());
+            return professorCourses.load(List.of(professorId, SortUtility.DEFAULT_DIR),
+                    () -> courseService.findCoursesByProfessorIdOrderByNameAsc(professorId));
         }
     }
 
@@ -45,6 +54,8 @@ public class CoursesApiController {
 
     @GetMapping("/student/courses")
     public List<CourseDTO> getCoursesForStudent(@AuthenticationPrincipal CustomUserDetails principal) {
-        return courseService.findCoursesByStudentIdOrderByNameDesc(principal.getId());
+        Integer studentId = principal.getId();
+
+        return studentCourses.load(studentId, () -> courseService.findCoursesByStudentIdOrderByNameDesc(studentId));
     }
 }
@@ -0,0 +1,40 @@
+package it.polimi.mypolihub_spa.controller.api;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import it.polimi.mypolihub_spa.DTO.OverviewCourseDTO;
+import it.polimi.mypolihub_spa.DTO.StudentDashboardDTO;
+import it.polimi.mypolihub_spa.security.CustomUserDetails;
+import it.polimi.mypolihub_spa.service.DashboardService;
+
+@RestController
+@RequestMapping("/api")
+public class DashboardApiController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // -----------------------------
+    // Professor operations
+    // -----------------------------
+
+    @GetMapping("/professor/overview")
+    public List<OverviewCourseDTO> getProfessorOverview(@AuthenticationPrincipal CustomUserDetails principal) {
+        return dashboardService.getProfessorOverview(principal.getId());
+    }
+
+    // -----------------------------
+    // Student operations
+    // -----------------------------
+
+    @GetMapping("/student/dashboard")
+    public StudentDashboardDTO getStudentDashboard(@AuthenticationPrincipal CustomUserDetails principal) {
+        return dashboardService.getStudentDashboard(principal.getId());
+    }
+}
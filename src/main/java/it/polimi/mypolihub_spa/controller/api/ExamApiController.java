@@ -4,18 +4,26 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import it.polimi.mypolihub_spa.DTO.ExamDTO;
+import it.polimi.mypolihub_spa.DTO.ExamRegistrationDTO;
 import it.polimi.mypolihub_spa.DTO.RegistrationDTO;
+import it.polimi.mypolihub_spa.datasource.ReadYourWritesTracker;
 import it.polimi.mypolihub_spa.security.CustomUserDetails;
 import it.polimi.mypolihub_spa.service.ExamService;
+import it.polimi.mypolihub_spa.service.RosterStreamService;
+import it.polimi.mypolihub_spa.utils.SingleFlight;
 import it.polimi.mypolihub_spa.utils.SortUtility;
 import it.polimi.mypolihub_spa.utils.SortUtility.SortKey;
 
@@ -26,9 +34,26 @@ public class ExamApiController {
     @Autowired
     private ExamService examService;
 
+    @Autowired
+    private RosterStreamService rosterStreamService;
+
+    // Only with the replica profile
+    @Autowired(required = false)
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    // A session opening sends every student of the course here within the same second
+    private final SingleFlight<Integer, List<ExamDTO>> examsByCourse = new SingleFlight<>();
+
     @GetMapping("/exams")
     public List<ExamDTO> getAllExams(@RequestParam(name = "courseId", required = false) Integer courseId) {
-        return examService.getExamsForCourse(courseId);
+        // A caller with a recent write reads from the primary: sharing a flight with replica
+        // readers could hand it the stale list it just changed
+        if (courseId == null || (readYourWritesTracker != null
+                && readYourWritesTracker.hasRecentWrite(ReadYourWritesTracker.currentUserId()))) {
+            return examService.getExamsForCourse(courseId);
+        }
+
+        return examsByCourse.load(courseId, () -> examService.getExamsForCourse(courseId));
     }
 
     // -----------------------------
@@ -45,6 +70,19 @@ public class ExamApiController {
         return examService.getStudentsByExamIdSortedBy(principal.getId(), examId, sortKey.jpa(), sortDir);
     }
 
+    // Same registrations as above, streamed from the database as { exam, registrations: [...] }
+    @GetMapping("/professor/exam/stream")
+    public ResponseEntity<StreamingResponseBody> streamRegistrationsByExamId(@RequestParam Integer examId,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+
+        SortKey sortKey = SortUtility.getValidSortKeyFrom(SortUtility.DEFAULT_SORT);
+        String sortDir = SortUtility.getValidSortDirFrom(SortUtility.DEFAULT_DIR);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rosterStreamService.streamExamRoster(principal.getId(), examId, sortKey.jpa(), sortDir));
+    }
+
     // -----------------------------
     // Student operations
     // -----------------------------
@@ -56,10 +94,18 @@ public class ExamApiController {
         return examService.getRegisteredExamIds(principal.getId(), courseId);
     }
 
+    // A seat, or a place on the waitlist when the exam is full
     @PostMapping("/student/exam/{examId}/register")
-    public void registerForExam(
+    public ExamRegistrationDTO registerForExam(
+            @PathVariable Integer examId,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return examService.registerStudentForExam(principal.getId(), examId);
+    }
+
+    @DeleteMapping("/student/exam/{examId}/register")
+    public void unregisterFromExam(
             @PathVariable Integer examId,
             @AuthenticationPrincipal CustomUserDetails principal) {
-        examService.registerStudentForExam(principal.getId(), examId);
+        examService.unregisterStudentFromExam(principal.getId(), examId);
     }
 }
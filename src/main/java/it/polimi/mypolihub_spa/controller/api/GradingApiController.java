@@ -0,0 +1,56 @@
+package it.polimi.mypolihub_spa.controller.api;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import it.polimi.mypolihub_spa.DTO.GradingReportDTO;
+import it.polimi.mypolihub_spa.grading.GradingSessionBuffer;
+import it.polimi.mypolihub_spa.security.CustomUserDetails;
+
+@RestController
+@RequestMapping("/api/professor/exam/{examId}/grading")
+public class GradingApiController {
+
+    @Autowired
+    private GradingSessionBuffer gradingSessionBuffer;
+
+    // 202 when queued; 200 with the new version when the buffer writes through (shared sessions)
+    @PutMapping("/{registrationId}")
+    public ResponseEntity<Map<String, Integer>> queueResult(
+            @PathVariable Integer examId,
+            @PathVariable Integer registrationId,
+            @RequestParam Integer resultId,
+            @RequestParam(required = false) Integer version,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        if (!gradingSessionBuffer.isWriteBehind()) {
+            Integer newVersion = gradingSessionBuffer.write(principal.getId(), registrationId, resultId, version);
+
+            return ResponseEntity.ok(Map.of("pending", 0, "version", newVersion));
+        }
+
+        int pending = gradingSessionBuffer.enqueue(principal.getId(), examId, registrationId, resultId, version);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("pending", pending));
+    }
+
+    @PostMapping("/flush")
+    public GradingReportDTO flush(@PathVariable Integer examId, @AuthenticationPrincipal CustomUserDetails principal) {
+        return gradingSessionBuffer.flush(principal.getId(), examId);
+    }
+
+    @DeleteMapping
+    public GradingReportDTO close(@PathVariable Integer examId, @AuthenticationPrincipal CustomUserDetails principal) {
+        return gradingSessionBuffer.close(principal.getId(), examId);
+    }
+}
@@ -3,15 +3,20 @@ package it.polimi.mypolihub_spa.controller.api;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import it.polimi.mypolihub_spa.DTO.ReportDTO;
 import it.polimi.mypolihub_spa.security.CustomUserDetails;
 import it.polimi.mypolihub_spa.service.ReportService;
+import it.polimi.mypolihub_spa.service.RosterStreamService;
+import it.polimi.mypolihub_spa.utils.SingleFlight;
 import it.polimi.mypolihub_spa.utils.SortUtility;
 import it.polimi.mypolihub_spa.utils.SortUtility.SortKey;
 
@@ -22,13 +27,22 @@ public class ReportApiController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private RosterStreamService rosterStreamService;
+
+    // Keyed by course and professor: the access check is part of the load
+    private final SingleFlight<List<Integer>, List<ReportDTO>> reportsByCourse = new SingleFlight<>();
+
     // -----------------------------
 	// Professor operations
 	// -----------------------------
     
     @GetMapping("/professor/reports")
     public List<ReportDTO> getAllReportsByCourseId(@RequestParam Integer courseId, @AuthenticationPrincipal CustomUserDetails principal) {
-        return reportService.getReportsForCourse(principal.getId(), courseId);
+        Integer professorId = principal.getId();
+
+        return reportsByCourse.load(List.of(courseId, professorId),
+                () -> reportService.getReportsForCourse(professorId, courseId));
     }
 
     @GetMapping("/professor/report")
@@ -38,4 +52,16 @@ public class ReportApiController {
 
         return reportService.getReportByIdSortedBy(principal.getId(), reportId, sortKey.jpa(), sortDir);
     }
+
+    // Same report as above, with the registrations streamed from the database (without the per-row exam)
+    @GetMapping("/professor/report/stream")
+    public ResponseEntity<StreamingResponseBody> streamReportById(@RequestParam Integer reportId,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        SortKey sortKey = SortUtility.getValidSortKeyFrom(SortUtility.DEFAULT_SORT);
+        String sortDir = SortUtility.getValidSortDirFrom(SortUtility.DEFAULT_DIR);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rosterStreamService.streamReport(principal.getId(), reportId, sortKey.jpa(), sortDir));
+    }
 }
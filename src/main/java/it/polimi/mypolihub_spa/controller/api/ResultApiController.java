@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,13 +15,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import it.polimi.mypolihub_spa.DTO.BulkResultUpdateDTO;
+import it.polimi.mypolihub_spa.DTO.GradeImportReportDTO;
 import it.polimi.mypolihub_spa.DTO.RegistrationDTO;
 import it.polimi.mypolihub_spa.DTO.ResultDTO;
 import it.polimi.mypolihub_spa.entity.DefaultValues;
+import it.polimi.mypolihub_spa.exception.RegistrationConflictException;
+import it.polimi.mypolihub_spa.grading.GradingSessionBuffer;
 import it.polimi.mypolihub_spa.security.CustomUserDetails;
 import it.polimi.mypolihub_spa.service.ExamService;
+import it.polimi.mypolihub_spa.service.GradeImportService;
 import it.polimi.mypolihub_spa.service.ResultService;
 
 @RestController
@@ -33,6 +39,12 @@ public class ResultApiController {
     @Autowired
     private ExamService examService;
 
+    @Autowired
+    private GradingSessionBuffer gradingSessionBuffer;
+
+    @Autowired
+    private GradeImportService gradeImportService;
+
     @GetMapping("/results/valid-only")
     public List<ResultDTO> getAllValidResults() {
         List<ResultDTO> results = resultService.getAllResults();
@@ -50,8 +62,13 @@ public class ResultApiController {
     public RegistrationDTO editResult(
             @PathVariable Integer registrationId,
             @RequestParam Integer resultId,
+            @RequestParam(required = false) Integer version,
             @AuthenticationPrincipal CustomUserDetails principal) {
-        examService.setResult(principal.getId(), registrationId, resultId);
+        try {
+            examService.setResult(principal.getId(), registrationId, resultId, version);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflictFor(principal.getId(), registrationId);
+        }
 
         return examService.getRegistrationById(principal.getId(), registrationId);
     }
@@ -60,7 +77,14 @@ public class ResultApiController {
     public List<RegistrationDTO> editResultBulk(
             @RequestBody List<BulkResultUpdateDTO> updates,
             @AuthenticationPrincipal CustomUserDetails principal) {
-        examService.setResultBulk(principal.getId(), updates);
+        try {
+            examService.setResultBulk(principal.getId(), updates);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (e.getIdentifier() instanceof Integer registrationId) {
+                throw conflictFor(principal.getId(), registrationId);
+            }
+            throw e;
+        }
 
         List<Integer> registrationIds = updates.stream()
                 .map(u -> u.registrationId())
@@ -69,16 +93,31 @@ public class ResultApiController {
         return examService.getAllRegistrationsById(principal.getId(), registrationIds);
     }
 
+    @PostMapping("/professor/exam/{examId}/grades")
+    public GradeImportReportDTO importGrades(@PathVariable Integer examId,
+            @RequestParam("file") MultipartFile file,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        // Buffered edits first, so that they neither overwrite the file nor conflict with it later
+        gradingSessionBuffer.flush(principal.getId(), examId);
+
+        return gradeImportService.importGrades(principal.getId(), examId, file);
+    }
+
     @PostMapping("/professor/exam/{examId}/publish")
     public void publishResults(@PathVariable Integer examId,
             @AuthenticationPrincipal CustomUserDetails principal) {
-        examService.publishResults(principal.getId(), examId);
+        // Buffered grade edits must land before the inserted results are published
+        gradingSessionBuffer.flushThen(principal.getId(), examId, () -> {
+            examService.publishResults(principal.getId(), examId);
+            return null;
+        });
     }
 
     @PostMapping("/professor/exam/{examId}/finalize")
     public Map<String, Integer> finalizeResults(@PathVariable Integer examId,
             @AuthenticationPrincipal CustomUserDetails principal) {
-        int reportId = examService.finalizeResults(principal.getId(), examId);
+        int reportId = gradingSessionBuffer.flushThen(principal.getId(), examId,
+                () -> examService.finalizeResults(principal.getId(), examId));
 
         return Map.of("reportId", reportId);
     }
@@ -123,4 +162,9 @@ public class ResultApiController {
     public void declineResult(@PathVariable Integer examId, @AuthenticationPrincipal CustomUserDetails principal) {
         examService.declineExamResult(principal.getId(), examId);
     }
+
+    // Another grader committed between our read and our flush: answer with their row
+    private RegistrationConflictException conflictFor(Integer professorId, Integer registrationId) {
+        return new RegistrationConflictException(examService.getRegistrationById(professorId, registrationId));
+    }
 }
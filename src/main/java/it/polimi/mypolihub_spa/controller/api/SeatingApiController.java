@@ -0,0 +1,72 @@
+package it.polimi.mypolihub_spa.controller.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import it.polimi.mypolihub_spa.DTO.SeatRowDTO;
+import it.polimi.mypolihub_spa.DTO.SeatingRequestDTO;
+import it.polimi.mypolihub_spa.DTO.SeatingRoomDTO;
+import it.polimi.mypolihub_spa.security.CustomUserDetails;
+import it.polimi.mypolihub_spa.service.SeatingService;
+
+@RestController
+@RequestMapping("/api/professor/exam/{examId}/seating")
+public class SeatingApiController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    @Autowired
+    private SeatingService seatingService;
+
+    // Replaces the current plan, if any
+    @PostMapping
+    public List<SeatingRoomDTO> allocateSeats(
+            @PathVariable Integer examId,
+            @RequestBody SeatingRequestDTO request,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return seatingService.allocateSeats(principal.getId(), examId, request);
+    }
+
+    @GetMapping
+    public List<SeatingRoomDTO> getRooms(
+            @PathVariable Integer examId,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return seatingService.getRooms(principal.getId(), examId);
+    }
+
+    @GetMapping("/seats")
+    public List<SeatRowDTO> getSeats(
+            @PathVariable Integer examId,
+            @RequestParam(required = false) String room,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return seatingService.getSeats(principal.getId(), examId, room);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<String> exportSeats(
+            @PathVariable Integer examId,
+            @RequestParam(required = false) String room,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        String filename = "posti-appello-" + examId + (room == null ? "" : "-" + room) + ".csv";
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString())
+                .body(seatingService.exportCsv(principal.getId(), examId, room));
+    }
+}
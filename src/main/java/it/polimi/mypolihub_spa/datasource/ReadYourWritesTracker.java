@@ -0,0 +1,62 @@
+package it.polimi.mypolihub_spa.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import it.polimi.mypolihub_spa.security.CustomUserDetails;
+
+/**
+ * Remembers when each user last committed a write, so that their reads
+ * stay on the primary until the replica has had time to catch up.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMillis;
+    private final Map<Integer, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void recordWrite(Integer userId) {
+        lastWriteByUser.put(userId, System.currentTimeMillis());
+    }
+
+    public boolean hasRecentWrite(Integer userId) {
+        if (userId == null) {
+            return false;
+        }
+
+        Long lastWrite = lastWriteByUser.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - lastWrite > windowMillis) {
+            lastWriteByUser.remove(userId, lastWrite);
+            return false;
+        }
+
+        return true;
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - windowMillis;
+        lastWriteByUser.values().removeIf(lastWrite -> lastWrite < threshold);
+    }
+
+    public static Integer currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth != null && auth.getPrincipal() instanceof CustomUserDetails principal) {
+            return principal.getId();
+        }
+
+        return null;
+    }
+}
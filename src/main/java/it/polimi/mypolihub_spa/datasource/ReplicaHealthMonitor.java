@@ -0,0 +1,49 @@
+package it.polimi.mypolihub_spa.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+public class ReplicaHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthMonitor.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private volatile boolean replicaHealthy = true;
+
+    public ReplicaHealthMonitor(DataSource replica) {
+        this.replica = replica;
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    public void markUnhealthy() {
+        replicaHealthy = false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void check() {
+        boolean healthy;
+
+        try (Connection connection = replica.getConnection()) {
+            healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (healthy != replicaHealthy) {
+            log.info("Replica is now {}", healthy ? "healthy, routing read-only transactions to it" : "unhealthy, routing everything to primary");
+        }
+
+        replicaHealthy = healthy;
+    }
+}
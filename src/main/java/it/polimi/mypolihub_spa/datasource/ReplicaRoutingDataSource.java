@@ -0,0 +1,98 @@
+package it.polimi.mypolihub_spa.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy, otherwise the read-only flag
+ * of the transaction is not yet known when the connection is requested.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica,
+            ReadYourWritesTracker readYourWritesTracker, ReplicaHealthMonitor replicaHealthMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.replicaHealthMonitor = replicaHealthMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!shouldUseReplica()) {
+            return primary.getConnection();
+        }
+
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica unavailable, falling back to primary: {}", e.getMessage());
+            replicaHealthMonitor.markUnhealthy();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!shouldUseReplica()) {
+            return primary.getConnection(username, password);
+        }
+
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            log.warn("Replica unavailable, falling back to primary: {}", e.getMessage());
+            replicaHealthMonitor.markUnhealthy();
+            return primary.getConnection(username, password);
+        }
+    }
+
+    private boolean shouldUseReplica() {
+        Integer userId = ReadYourWritesTracker.currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            rememberWrite(userId);
+            return false;
+        }
+
+        if (!replicaHealthMonitor.isReplicaHealthy()) {
+            return false;
+        }
+
+        return !readYourWritesTracker.hasRecentWrite(userId);
+    }
+
+    private void rememberWrite(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            readYourWritesTracker.recordWrite(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(userId);
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package it.polimi.mypolihub_spa.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+@Entity
+@Immutable
+@Table(name = "registrations_archive", indexes = {
+        @Index(name = "idx_registrations_archive_student_exam", columnList = "student_id, exam_id"),
+        @Index(name = "idx_registrations_archive_report", columnList = "report_id")
+})
+public class ArchivedRegistration extends BaseRegistration {
+
+    @Id
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "report_id", nullable = false)
+    private ArchivedReport report;
+
+    @Override
+    public Integer getId() {
+        return id;
+    }
+
+    // Archived rows are never modified, so they carry no version
+    @Override
+    public Integer getVersion() {
+        return null;
+    }
+
+    public ArchivedReport getReport() {
+        return report;
+    }
+}
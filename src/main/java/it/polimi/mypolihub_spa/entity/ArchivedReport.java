@@ -0,0 +1,24 @@
+package it.polimi.mypolihub_spa.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Immutable
+@Table(name = "reports_archive", indexes = {
+        @Index(name = "idx_reports_archive_exam", columnList = "exam_id")
+})
+public class ArchivedReport extends BaseReport {
+
+    @Id
+    private Integer id;
+
+    @Override
+    public Integer getId() {
+        return id;
+    }
+}
@@ -5,6 +5,10 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -23,8 +27,11 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
 @Table(name = "courses", indexes = {
-        @Index(name = "FK_courses_professors", columnList = "professor_id")
+        @Index(name = "FK_courses_professors", columnList = "professor_id"),
+        @Index(name = "idx_courses_name", columnList = "name")
 })
 public class Course {
 
@@ -50,10 +57,13 @@ public class Course {
     private Professor professor;
 
     @ManyToMany
-    @JoinTable(name = "courses_students", joinColumns = @JoinColumn(name = "course_id"), inverseJoinColumns = @JoinColumn(name = "student_id"))
+    @JoinTable(name = "courses_students", joinColumns = @JoinColumn(name = "course_id"), inverseJoinColumns = @JoinColumn(name = "student_id"), indexes = {
+            @Index(name = "idx_courses_students_student", columnList = "student_id")
+    })
     private Set<Student> students = new HashSet<>();
 
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course.courseMajors")
     private Set<CourseMajor> courseMajors = new LinkedHashSet<>();
 
     public Integer getId() {
@@ -31,6 +31,14 @@ public class Exam {
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
+    // Null: no seat limit
+    @Column(name = "capacity")
+    private Integer capacity;
+
+    // Only moved by ExamRepository.takeSeat/releaseSeat
+    @Column(name = "seats_taken", nullable = false, insertable = false, updatable = false)
+    private int seatsTaken;
+
     public Integer getId() {
         return id;
     }
@@ -50,4 +58,16 @@ public class Exam {
     public void setCourse(Course course) {
         this.course = course;
     }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getSeatsTaken() {
+        return seatsTaken;
+    }
 }
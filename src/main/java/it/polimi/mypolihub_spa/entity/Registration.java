@@ -1,74 +1,46 @@
 package it.polimi.mypolihub_spa.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
-@Table(name = "registrations")
-public class Registration {
+@Table(name = "registrations", indexes = {
+        @Index(name = "idx_registrations_exam_status_report", columnList = "exam_id, status_id, report_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uq_registrations_student_exam", columnNames = { "student_id", "exam_id" })
+})
+public class Registration extends BaseRegistration {
  
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "student_id", nullable = false)
-    private Student student;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "exam_id", nullable = false)
-    private Exam exam;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "status_id", nullable = false)
-    private Status status;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "result_id", nullable = false)
-    private Result result;
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "report_id")
     private Report report;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Override
     public Integer getId() {
         return id;
     }
 
-    public Student getStudent() {
-        return student;
-    }
-
-    public void setStudent(Student student) {
-        this.student = student;
-    }
-
-    public Exam getExam() {
-        return exam;
-    }
-
-    public void setExam(Exam exam) {
-        this.exam = exam;
-    }
-
-    public Status getStatus() {
-        return status;
-    }
-    public void setStatus(Status status) {
-        this.status = status;
-    }
-
-    public Result getResult() {
-        return result;
-    }
-    public void setResult(Result result) {
-        this.result = result;
+    @Override
+    public Integer getVersion() {
+        return version;
     }
 
     public Report getReport() {
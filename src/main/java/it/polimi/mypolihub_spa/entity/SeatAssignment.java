@@ -0,0 +1,59 @@
+package it.polimi.mypolihub_spa.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Seat of a registered student; written in bulk by SeatingService
+@Entity
+@Table(name = "seat_assignments", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_seat_assignments_registration", columnNames = { "registration_id" }),
+        @UniqueConstraint(name = "uq_seat_assignments_exam_room_seat", columnNames = { "exam_id", "room", "seat" })
+})
+public class SeatAssignment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "exam_id", nullable = false)
+    private Exam exam;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "registration_id", nullable = false)
+    private Registration registration;
+
+    @Column(nullable = false, length = 50)
+    private String room;
+
+    @Column(nullable = false)
+    private Integer seat;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Exam getExam() {
+        return exam;
+    }
+
+    public Registration getRegistration() {
+        return registration;
+    }
+
+    public String getRoom() {
+        return room;
+    }
+
+    public Integer getSeat() {
+        return seat;
+    }
+}
@@ -0,0 +1,17 @@
+package it.polimi.mypolihub_spa.exception;
+
+import it.polimi.mypolihub_spa.DTO.RegistrationDTO;
+
+public class RegistrationConflictException extends RuntimeException {
+
+    private final RegistrationDTO current;
+
+    public RegistrationConflictException(RegistrationDTO current) {
+        super("Il voto è stato modificato da un altro utente");
+        this.current = current;
+    }
+
+    public RegistrationDTO getCurrent() {
+        return current;
+    }
+}
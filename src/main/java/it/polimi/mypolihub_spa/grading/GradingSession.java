@@ -0,0 +1,148 @@
+package it.polimi.mypolihub_spa.grading;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import it.polimi.mypolihub_spa.DTO.BulkResultUpdateDTO;
+import it.polimi.mypolihub_spa.DTO.GradingReportDTO;
+import it.polimi.mypolihub_spa.DTO.RegistrationDTO;
+
+/**
+ * Grade edits of one professor on one exam that were acknowledged but not written yet,
+ * coalesced by registration, plus the outcomes of the flushes not yet reported back.
+ */
+class GradingSession {
+
+    // Returned by enqueue once the session has been removed from the buffer
+    static final int CLOSED = -1;
+
+    // Version the client still holds for a registration, and the one our own flushes left it at
+    private record OwnWrite(Integer clientVersion, Integer version) {
+    }
+
+    private final Integer professorId;
+    private final Integer examId;
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Map<Integer, BulkResultUpdateDTO> pending = new LinkedHashMap<>();
+    private final Map<Integer, OwnWrite> ownWrites = new HashMap<>();
+    private final Map<Integer, Integer> versions = new HashMap<>();
+    private final Map<Integer, RegistrationDTO> conflicts = new LinkedHashMap<>();
+    private final Map<Integer, String> errors = new LinkedHashMap<>();
+    private long lastUsedMillis = System.currentTimeMillis();
+    private boolean closed;
+
+    GradingSession(Integer professorId, Integer examId) {
+        this.professorId = professorId;
+        this.examId = examId;
+    }
+
+    Integer getProfessorId() {
+        return professorId;
+    }
+
+    Integer getExamId() {
+        return examId;
+    }
+
+    ReentrantLock getFlushLock() {
+        return flushLock;
+    }
+
+    // -----------------------------
+    // Edits
+    // -----------------------------
+
+    synchronized int enqueue(Integer registrationId, Integer resultId, Integer version) {
+        if (closed) {
+            return CLOSED;
+        }
+        lastUsedMillis = System.currentTimeMillis();
+
+        // The client does not see background flushes: its version is still good if only we moved it
+        OwnWrite own = ownWrites.get(registrationId);
+        if (own != null && Objects.equals(version, own.clientVersion())) {
+            version = own.version();
+        }
+
+        BulkResultUpdateDTO edit = new BulkResultUpdateDTO(registrationId, resultId, version);
+
+        // Last result wins, but the check stays against the version the first edit was based on
+        pending.merge(registrationId, edit,
+                (previous, latest) -> new BulkResultUpdateDTO(registrationId, latest.resultId(), previous.version()));
+
+        return pending.size();
+    }
+
+    synchronized List<BulkResultUpdateDTO> drain() {
+        List<BulkResultUpdateDTO> edits = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+
+        return edits;
+    }
+
+    // A newer edit of the same registration, queued meanwhile, takes precedence
+    synchronized void requeue(BulkResultUpdateDTO edit) {
+        pending.putIfAbsent(edit.registrationId(), edit);
+    }
+
+    // After this no edit gets in, so a final drain sees every acknowledged edit
+    synchronized void close() {
+        closed = true;
+    }
+
+    synchronized boolean closeIfIdleSince(long cutoffMillis) {
+        if (pending.isEmpty() && lastUsedMillis < cutoffMillis) {
+            closed = true;
+        }
+        return closed;
+    }
+
+    // -----------------------------
+    // Outcomes
+    // -----------------------------
+
+    synchronized void recordWritten(List<BulkResultUpdateDTO> edits, Map<Integer, Integer> newVersions) {
+        for (BulkResultUpdateDTO edit : edits) {
+            Integer newVersion = newVersions.get(edit.registrationId());
+            if (edit.version() == null || newVersion == null) {
+                continue;
+            }
+
+            OwnWrite own = ownWrites.get(edit.registrationId());
+            Integer clientVersion = own != null && Objects.equals(edit.version(), own.version())
+                    ? own.clientVersion()
+                    : edit.version();
+
+            ownWrites.put(edit.registrationId(), new OwnWrite(clientVersion, newVersion));
+        }
+
+        versions.putAll(newVersions);
+    }
+
+    synchronized void recordConflict(Integer registrationId, RegistrationDTO current) {
+        conflicts.put(registrationId, current);
+    }
+
+    synchronized void recordError(Integer registrationId, String message) {
+        errors.put(registrationId, message);
+    }
+
+    synchronized GradingReportDTO report() {
+        GradingReportDTO report = new GradingReportDTO(
+                new HashMap<>(versions),
+                new ArrayList<>(conflicts.values()),
+                new LinkedHashMap<>(errors));
+
+        versions.clear();
+        conflicts.clear();
+        errors.clear();
+
+        return report;
+    }
+}
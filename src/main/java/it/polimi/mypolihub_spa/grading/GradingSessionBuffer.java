@@ -0,0 +1,269 @@
+package it.polimi.mypolihub_spa.grading;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import it.polimi.mypolihub_spa.DTO.BulkResultUpdateDTO;
+import it.polimi.mypolihub_spa.DTO.GradingReportDTO;
+import it.polimi.mypolihub_spa.exception.RegistrationConflictException;
+import it.polimi.mypolihub_spa.repository.ExamRepository;
+import it.polimi.mypolihub_spa.service.ExamService;
+
+/**
+ * Write-behind buffer for per-cell grade edits: edits are acknowledged as soon as they are
+ * queued, repeated edits of a registration collapse into one, and the queue is written in
+ * batched transactions every few seconds, when the professor flushes or closes the session,
+ * and before publishing or finalizing the exam.
+ * <p>
+ * Pending edits live in the memory of the node that acknowledged them, so the flush
+ * interval bounds what a crash can lose. That also means a publish must reach the node
+ * holding the edits: with the shared JDBC session store (non-sticky nodes) the buffer is
+ * bypassed and every edit is written before it is acknowledged, unless
+ * app.grading.sticky-routing says the load balancer pins professors to a node.
+ * <p>
+ * Conflicts and rejected edits of a session closed without anyone reading them (the page
+ * was left, the idle sweep) are kept and handed to the next flush of the same exam.
+ */
+@Component
+public class GradingSessionBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(GradingSessionBuffer.class);
+
+    private record SessionKey(Integer professorId, Integer examId) {
+    }
+
+    private record UndeliveredReport(GradingReportDTO report, long closedAtMillis) {
+    }
+
+    private static final Duration UNDELIVERED_RETENTION = Duration.ofDays(1);
+
+    @Autowired
+    private ExamService examService;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Value("${app.grading.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.grading.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${app.session.store:servlet}")
+    private String sessionStore;
+
+    @Value("${app.grading.sticky-routing:false}")
+    private boolean stickyRouting;
+
+    private boolean writeBehind;
+
+    private final Map<SessionKey, GradingSession> sessions = new ConcurrentHashMap<>();
+    private final Map<SessionKey, UndeliveredReport> undelivered = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void chooseMode() {
+        writeBehind = !"jdbc".equals(sessionStore) || stickyRouting;
+        if (!writeBehind) {
+            log.info("Shared session store without sticky routing: grade edits are written through");
+        }
+    }
+
+    // -----------------------------
+    // Session API
+    // -----------------------------
+
+    // False when edits must be written with write() instead of being queued
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    // Write-through edit: returns the new version of the registration, conflicts are thrown
+    public Integer write(Integer professorId, Integer registrationId, Integer resultId, Integer version) {
+        BulkResultUpdateDTO edit = new BulkResultUpdateDTO(registrationId, resultId, version);
+
+        return examService.applyResults(professorId, List.of(edit)).get(registrationId);
+    }
+
+    public int enqueue(Integer professorId, Integer examId, Integer registrationId, Integer resultId, Integer version) {
+        SessionKey key = new SessionKey(professorId, examId);
+
+        while (true) {
+            GradingSession session = sessions.get(key);
+            if (session == null) {
+                // Checked once per session; every edit is checked again when it is written
+                if (!examRepository.existsByIdAndCourse_Professor_Id(examId, professorId)) {
+                    throw new AccessDeniedException("Assicurati di essere il docente associato al corso");
+                }
+                session = sessions.computeIfAbsent(key, k -> new GradingSession(professorId, examId));
+            }
+
+            int pending = session.enqueue(registrationId, resultId, version);
+            if (pending != GradingSession.CLOSED) {
+                return pending;
+            }
+
+            // Closed by close() or the idle sweep after we looked it up: it won't be flushed again
+            sessions.remove(key, session);
+        }
+    }
+
+    public GradingReportDTO flush(Integer professorId, Integer examId) {
+        SessionKey key = new SessionKey(professorId, examId);
+
+        GradingSession session = sessions.get(key);
+        if (session == null) {
+            return withUndelivered(key, GradingReportDTO.empty());
+        }
+
+        flush(session);
+
+        return withUndelivered(key, session.report());
+    }
+
+    // Flushes, then runs the action with the session lock still held, so no background
+    // flush of this session can interleave with it
+    public <T> T flushThen(Integer professorId, Integer examId, Supplier<T> action) {
+        GradingSession session = sessions.get(new SessionKey(professorId, examId));
+        if (session == null) {
+            return action.get();
+        }
+
+        session.getFlushLock().lock();
+        try {
+            flush(session);
+            return action.get();
+        } finally {
+            session.getFlushLock().unlock();
+        }
+    }
+
+    // Sent while the page is being left, so nobody may read the answer: failures are also
+    // kept for the next flush of the exam
+    public GradingReportDTO close(Integer professorId, Integer examId) {
+        SessionKey key = new SessionKey(professorId, examId);
+
+        GradingSession session = sessions.remove(key);
+        if (session == null) {
+            return GradingReportDTO.empty();
+        }
+
+        session.close();
+        flush(session);
+
+        GradingReportDTO report = session.report();
+        keepUndelivered(key, report);
+
+        return report;
+    }
+
+    // -----------------------------
+    // Background flush
+    // -----------------------------
+
+    @Scheduled(fixedDelayString = "${app.grading.flush-interval-ms:2000}")
+    public void flushAll() {
+        long idleCutoff = System.currentTimeMillis() - Duration.ofMinutes(idleMinutes).toMillis();
+
+        sessions.forEach((key, session) -> {
+            flush(session);
+
+            // Only an empty session is closed, and enqueue moves on to a new one
+            if (session.closeIfIdleSince(idleCutoff)) {
+                sessions.remove(key, session);
+                keepUndelivered(key, session.report());
+            }
+        });
+
+        long retentionCutoff = System.currentTimeMillis() - UNDELIVERED_RETENTION.toMillis();
+        undelivered.values().removeIf(report -> report.closedAtMillis() < retentionCutoff);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        sessions.values().forEach(this::flush);
+    }
+
+    // -----------------------------
+    // Helpers: reports
+    // -----------------------------
+
+    // New versions only matter to the page that is gone: keep conflicts and errors
+    private void keepUndelivered(SessionKey key, GradingReportDTO report) {
+        if (!report.hasFailures()) {
+            return;
+        }
+
+        UndeliveredReport kept = new UndeliveredReport(report, System.currentTimeMillis());
+        undelivered.merge(key, kept,
+                (previous, latest) -> new UndeliveredReport(previous.report().merge(latest.report()),
+                        latest.closedAtMillis()));
+    }
+
+    private GradingReportDTO withUndelivered(SessionKey key, GradingReportDTO report) {
+        UndeliveredReport previous = undelivered.remove(key);
+
+        return previous == null ? report : previous.report().merge(report);
+    }
+
+    // -----------------------------
+    // Helpers: writing
+    // -----------------------------
+
+    // The lock makes a flush requested by publish wait for a background flush already in progress
+    private void flush(GradingSession session) {
+        session.getFlushLock().lock();
+        try {
+            List<BulkResultUpdateDTO> edits = session.drain();
+
+            for (int from = 0; from < edits.size(); from += batchSize) {
+                List<BulkResultUpdateDTO> batch = edits.subList(from, Math.min(from + batchSize, edits.size()));
+
+                try {
+                    session.recordWritten(batch, examService.applyResults(session.getProfessorId(), batch));
+                } catch (RuntimeException e) {
+                    // One bad edit rolls the whole batch back: retry one by one to isolate it
+                    for (BulkResultUpdateDTO edit : batch) {
+                        applyOne(session, edit);
+                    }
+                }
+            }
+        } finally {
+            session.getFlushLock().unlock();
+        }
+    }
+
+    private void applyOne(GradingSession session, BulkResultUpdateDTO edit) {
+        Integer professorId = session.getProfessorId();
+        Integer registrationId = edit.registrationId();
+
+        try {
+            session.recordWritten(List.of(edit), examService.applyResults(professorId, List.of(edit)));
+        } catch (RegistrationConflictException e) {
+            session.recordConflict(registrationId, e.getCurrent());
+        } catch (OptimisticLockingFailureException e) {
+            session.recordConflict(registrationId, examService.getRegistrationById(professorId, registrationId));
+        } catch (IllegalArgumentException | AccessDeniedException e) {
+            session.recordError(registrationId, e.getMessage());
+        } catch (RuntimeException e) {
+            // Not the edit's fault (e.g. the database is unreachable): keep it for the next round
+            log.warn("Grade edit of registration {} on exam {} not written, will retry", registrationId,
+                    session.getExamId(), e);
+            session.requeue(edit);
+        }
+    }
+}
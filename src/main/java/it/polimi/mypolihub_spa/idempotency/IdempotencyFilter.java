@@ -0,0 +1,242 @@
+package it.polimi.mypolihub_spa.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+
+/**
+ * Replays the stored response when a mutating API call is retried with an
+ * Idempotency-Key it already completed, without invoking the controller again.
+ * Keys are scoped to the user, method and path, and bound to a hash of the query
+ * string and body: the same key with another payload gets a 422. Must run after
+ * Spring Security.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Set<String> SAFE_METHODS = Set.of(
+            HttpMethod.GET.name(),
+            HttpMethod.HEAD.name(),
+            HttpMethod.OPTIONS.name());
+
+    private final IdempotencyStore store;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyFilter(IdempotencyStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return SAFE_METHODS.contains(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key non valida");
+            return;
+        }
+
+        String scopedKey = request.getRemoteUser() + "|" + request.getMethod() + "|" + request.getRequestURI() + "|" + key;
+
+        // Reading a raw body consumes it: the chain gets a copy
+        MessageDigest digest = sha256();
+        request = hashRequest(request, digest);
+        String requestHash = HexFormat.of().formatHex(digest.digest());
+
+        Optional<StoredResponse> stored = store.find(scopedKey);
+        if (stored.isPresent()) {
+            // A key reused with another payload is a client bug, not a retry
+            if (stored.get().requestHash() != null && !stored.get().requestHash().equals(requestHash)) {
+                response.sendError(HttpStatus.UNPROCESSABLE_CONTENT.value(),
+                        "Idempotency-Key già usata per una richiesta diversa");
+                return;
+            }
+            replay(stored.get(), response);
+            return;
+        }
+
+        if (!inFlight.add(scopedKey)) {
+            response.sendError(HttpServletResponse.SC_CONFLICT, "Richiesta già in elaborazione");
+            return;
+        }
+
+        try {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                // The mutation is committed by now: losing the key only makes a retry run it again,
+                // failing the response would make the client retry something that succeeded
+                try {
+                    store.save(scopedKey,
+                            new StoredResponse(requestHash, status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                } catch (RuntimeException e) {
+                    log.warn("Could not store the response for idempotency key {}", scopedKey, e);
+                }
+            }
+
+            wrapper.copyBodyToResponse();
+        } finally {
+            inFlight.remove(scopedKey);
+        }
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+
+        if (stored.body() != null && stored.body().length > 0) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    // -----------------------------
+
+    // Forms and uploads are hashed through the parsed parameters and parts, which the container
+    // keeps; any other body is read here and handed on as a copy
+    private static HttpServletRequest hashRequest(HttpServletRequest request, MessageDigest digest)
+            throws ServletException, IOException {
+        update(digest, request.getQueryString());
+
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            updateWithParameters(digest, request);
+            for (Part part : request.getParts()) {
+                update(digest, part.getName());
+                update(digest, part.getSubmittedFileName());
+                try (InputStream in = part.getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+            return request;
+        }
+
+        if (contentType != null && contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+            updateWithParameters(digest, request);
+            return request;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        digest.update(body);
+        return new CachedBodyRequest(request, body);
+    }
+
+    private static void updateWithParameters(MessageDigest digest, HttpServletRequest request) {
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            update(digest, parameter.getKey());
+            for (String value : parameter.getValue()) {
+                update(digest, value);
+            }
+        }
+    }
+
+    // The separator keeps ("ab", "c") and ("a", "bc") apart
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
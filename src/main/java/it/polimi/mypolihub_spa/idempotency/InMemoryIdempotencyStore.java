@@ -0,0 +1,47 @@
+package it.polimi.mypolihub_spa.idempotency;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU of recent responses; entries also expire after the configured TTL.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<StoredResponse> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(key);
+            return Optional.empty();
+        }
+
+        return Optional.of(entry.response());
+    }
+
+    @Override
+    public synchronized void save(String key, StoredResponse response) {
+        entries.put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    private record Entry(StoredResponse response, long expiresAt) {}
+}
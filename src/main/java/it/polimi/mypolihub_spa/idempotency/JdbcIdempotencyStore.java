@@ -0,0 +1,68 @@
+package it.polimi.mypolihub_spa.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps keys in the idempotency_keys table so that retries are recognized across
+ * restarts and instances. Lookups go through the in-memory store first.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryIdempotencyStore cache;
+    private final Duration ttl;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, InMemoryIdempotencyStore cache, Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = cache;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        Optional<StoredResponse> cached = cache.find(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        List<StoredResponse> rows = jdbcTemplate.query("""
+                SELECT request_hash, status, content_type, body
+                FROM idempotency_keys
+                WHERE idempotency_key = ? AND created_at > ?
+                """,
+                (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"), rs.getInt("status"),
+                        rs.getString("content_type"), rs.getBytes("body")),
+                key, Timestamp.from(Instant.now().minus(ttl)));
+
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        cache.save(key, rows.get(0));
+        return Optional.of(rows.get(0));
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        cache.save(key, response);
+
+        jdbcTemplate.update("""
+                INSERT IGNORE INTO idempotency_keys (idempotency_key, request_hash, status, content_type, body, created_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """,
+                key, response.requestHash(), response.status(), response.contentType(), response.body(), Timestamp.from(Instant.now()));
+    }
+
+    @Scheduled(fixedDelay = 600_000)
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?",
+                Timestamp.from(Instant.now().minus(ttl)));
+    }
+}
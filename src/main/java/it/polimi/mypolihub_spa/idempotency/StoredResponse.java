@@ -0,0 +1,5 @@
+package it.polimi.mypolihub_spa.idempotency;
+
+// requestHash: hex SHA-256 of the request the response belongs to, null for rows stored before it was kept
+public record StoredResponse(String requestHash, int status, String contentType, byte[] body) {
+}
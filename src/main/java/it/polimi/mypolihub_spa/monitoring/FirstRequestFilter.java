@@ -0,0 +1,37 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Tells the StartupTimer when the first request is over; a single flag read afterwards.
+ */
+public class FirstRequestFilter extends OncePerRequestFilter {
+
+    private final StartupTimer startupTimer;
+
+    public FirstRequestFilter(StartupTimer startupTimer) {
+        this.startupTimer = startupTimer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !startupTimer.isFirstRequestPending();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            startupTimer.onRequestCompleted(request.getRequestURI());
+        }
+    }
+}
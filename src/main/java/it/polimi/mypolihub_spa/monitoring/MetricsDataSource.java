@@ -0,0 +1,104 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Wraps a connection pool to time connection acquisition and every statement execution
+ * into the RequestMetrics of the calling thread.
+ */
+public class MetricsDataSource extends DelegatingDataSource {
+
+    public MetricsDataSource(DataSource pool) {
+        super(pool);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        RequestMetrics.recordConnectionWait(System.nanoTime() - start);
+
+        return wrap(connection, Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        RequestMetrics.recordConnectionWait(System.nanoTime() - start);
+
+        return wrap(connection, Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T wrap(T target, Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(MetricsDataSource.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            // Identity of the proxy, not of the pooled connection, as seen by the transaction managers
+            switch (method.getName()) {
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+
+            Object result = MetricsDataSource.invoke(target, method, args);
+
+            if (result instanceof CallableStatement statement) {
+                return wrap(statement, CallableStatement.class, new StatementHandler(statement));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(statement, PreparedStatement.class, new StatementHandler(statement));
+            }
+            if (result instanceof Statement statement) {
+                return wrap(statement, Statement.class, new StatementHandler(statement));
+            }
+            return result;
+        }
+    }
+
+    private record StatementHandler(Statement target) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return MetricsDataSource.invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return MetricsDataSource.invoke(target, method, args);
+            } finally {
+                RequestMetrics.recordStatement(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import it.polimi.mypolihub_spa.datasource.ReplicaRoutingDataSource;
+
+/**
+ * Wraps the connection pools in a MetricsDataSource. Routing and lazy proxies on top of
+ * the pools are skipped, so every statement is counted once and the connection wait is
+ * the time spent in the pool.
+ */
+public class MetricsDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource pool && !(bean instanceof DelegatingDataSource)
+                && !(bean instanceof ReplicaRoutingDataSource)) {
+            return new MetricsDataSource(pool);
+        }
+        return bean;
+    }
+}
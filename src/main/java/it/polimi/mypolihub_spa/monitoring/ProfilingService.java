@@ -0,0 +1,293 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import it.polimi.mypolihub_spa.DTO.ProfileEntryDTO;
+import it.polimi.mypolihub_spa.DTO.RecordingDTO;
+import it.polimi.mypolihub_spa.DTO.RecordingSummaryDTO;
+
+/**
+ * Time-boxed Java Flight Recorder recordings, started from the admin panel while a
+ * latency spike is going on. Recordings are written as .jfr files to a local directory,
+ * where only the most recent ones are kept.
+ */
+@Service
+public class ProfilingService {
+
+    // "default" is safe to leave on in production (~1% overhead), "profile" samples more
+    public static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private static final String EXTENSION = ".jfr";
+    private static final Pattern NAME = Pattern.compile("recording-\\d{8}-\\d{6}");
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'recording-'yyyyMMdd-HHmmss")
+            .withZone(ZoneOffset.UTC);
+    private static final int TOP = 15;
+
+    private final Path directory;
+    private final long maxDurationSeconds;
+    private final int maxRecordings;
+
+    // Recordings still in progress, by name; finished ones are only known by their file
+    private final Map<String, RunningRecording> running = new ConcurrentHashMap<>();
+
+    public ProfilingService(
+            @Value("${app.profiling.directory:${java.io.tmpdir}/mypolihub-jfr}") String directory,
+            @Value("${app.profiling.max-duration-seconds:600}") long maxDurationSeconds,
+            @Value("${app.profiling.max-recordings:10}") int maxRecordings) {
+        this.directory = Path.of(directory);
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.maxRecordings = maxRecordings;
+    }
+
+    public synchronized RecordingDTO start(String settings, long durationSeconds) {
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("Unknown settings profile: " + settings);
+        }
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        pruneFinished();
+        if (!running.isEmpty()) {
+            throw new IllegalArgumentException("A recording is already running");
+        }
+
+        Instant now = Instant.now();
+        String name = NAME_FORMAT.format(now);
+
+        try {
+            Files.createDirectories(directory);
+            deleteOldest();
+
+            Recording recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName(name);
+            recording.setToDisk(true);
+            // Written to the destination and closed when the duration is over
+            recording.setDestination(fileOf(name));
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+            recording.start();
+
+            running.put(name, new RunningRecording(recording, settings, now));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Invalid JFR settings profile: " + settings, e);
+        }
+
+        return new RecordingDTO(name, settings, now, durationSeconds, true, 0);
+    }
+
+    public synchronized void stop(String name) {
+        pruneFinished();
+
+        RunningRecording current = running.remove(checkName(name));
+        if (current == null) {
+            throw new IllegalArgumentException("Recording not running: " + name);
+        }
+
+        // Stopping early still writes the recording to its destination
+        current.recording().stop();
+        current.recording().close();
+    }
+
+    public synchronized List<RecordingDTO> list() {
+        pruneFinished();
+
+        List<RecordingDTO> recordings = new ArrayList<>();
+        running.forEach((name, current) -> recordings.add(new RecordingDTO(name, current.settings(),
+                current.startedAt(), current.recording().getDuration().toSeconds(), true, 0)));
+
+        for (Path file : recordingFiles()) {
+            String name = nameOf(file);
+            if (!running.containsKey(name)) {
+                try {
+                    recordings.add(new RecordingDTO(name, null, Files.getLastModifiedTime(file).toInstant(), 0, false,
+                            Files.size(file)));
+                } catch (IOException e) {
+                    // Deleted while listing
+                }
+            }
+        }
+
+        recordings.sort(Comparator.comparing(RecordingDTO::name).reversed());
+        return recordings;
+    }
+
+    public synchronized Path getFile(String name) {
+        pruneFinished();
+        if (running.containsKey(checkName(name))) {
+            throw new IllegalArgumentException("Recording still running: " + name);
+        }
+
+        Path file = fileOf(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Recording not found: " + name);
+        }
+        return file;
+    }
+
+    // -----------------------------
+    // Summary
+    // -----------------------------
+
+    public RecordingSummaryDTO summarize(String name) {
+        Path file = getFile(name);
+
+        Map<String, long[]> methods = new HashMap<>();
+        Map<String, long[]> allocations = new HashMap<>();
+        Map<String, long[]> contention = new HashMap<>();
+        long samples = 0;
+
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        samples++;
+                        add(methods, topFrame(event.getStackTrace()), 0);
+                    }
+                    case "jdk.ObjectAllocationSample" ->
+                        add(allocations, className(event.getClass("objectClass")), event.getLong("weight"));
+                    case "jdk.JavaMonitorEnter" ->
+                        add(contention, "monitor " + className(event.getClass("monitorClass")),
+                                event.getDuration().toMillis());
+                    case "jdk.ThreadPark" ->
+                        add(contention, "park " + className(event.getClass("parkedClass")),
+                                event.getDuration().toMillis());
+                    default -> {
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new RecordingSummaryDTO(name, samples, top(methods, Comparator.comparingLong(ProfileEntryDTO::count)),
+                top(allocations, Comparator.comparingLong(ProfileEntryDTO::weight)),
+                top(contention, Comparator.comparingLong(ProfileEntryDTO::weight)));
+    }
+
+    private static void add(Map<String, long[]> totals, String label, long weight) {
+        long[] total = totals.computeIfAbsent(label, key -> new long[2]);
+        total[0]++;
+        total[1] += weight;
+    }
+
+    private static List<ProfileEntryDTO> top(Map<String, long[]> totals, Comparator<ProfileEntryDTO> order) {
+        return totals.entrySet().stream()
+                .map(e -> new ProfileEntryDTO(e.getKey(), e.getValue()[0], e.getValue()[1]))
+                .sorted(order.reversed())
+                .limit(TOP)
+                .toList();
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        RecordedMethod method = frame.getMethod();
+        return className(method.getType()) + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String className(RecordedClass type) {
+        return type == null ? "(unknown)" : type.getName();
+    }
+
+    // -----------------------------
+    // Files
+    // -----------------------------
+
+    private void pruneFinished() {
+        running.values().removeIf(current -> {
+            RecordingState state = current.recording().getState();
+            if (state == RecordingState.STOPPED || state == RecordingState.CLOSED) {
+                current.recording().close();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void deleteOldest() throws IOException {
+        List<Path> files = recordingFiles();
+        for (int i = 0; i <= files.size() - maxRecordings; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    // Oldest first: names are timestamps
+    private List<Path> recordingFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> NAME.matcher(nameOf(file)).matches()).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path fileOf(String name) {
+        return directory.resolve(name + EXTENSION);
+    }
+
+    private static String nameOf(Path file) {
+        String fileName = file.getFileName().toString();
+        return fileName.endsWith(EXTENSION) ? fileName.substring(0, fileName.length() - EXTENSION.length()) : fileName;
+    }
+
+    // Names end up in a file path: only accept the ones this service generates
+    private static String checkName(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid recording name");
+        }
+        return name;
+    }
+
+    @PreDestroy
+    public synchronized void stopAll() {
+        running.values().forEach(current -> {
+            if (current.recording().getState() == RecordingState.RUNNING) {
+                current.recording().stop();
+            }
+            current.recording().close();
+        });
+        running.clear();
+    }
+
+    private record RunningRecording(Recording recording, String settings, Instant startedAt) {
+    }
+}
@@ -0,0 +1,81 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+/**
+ * Database and serialization time of the request running on the current thread. Work done
+ * outside a measured request (scheduled jobs, async dispatches) is simply not recorded.
+ */
+public final class RequestMetrics {
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long statementNanos;
+    private int connections;
+    private long connectionWaitNanos;
+    private long serializationStartNanos;
+
+    private RequestMetrics() {
+    }
+
+    static RequestMetrics start() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    // -----------------------------
+    // Recording
+    // -----------------------------
+
+    static void recordStatement(long nanos) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.statements++;
+            metrics.statementNanos += nanos;
+        }
+    }
+
+    static void recordConnectionWait(long nanos) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.connections++;
+            metrics.connectionWaitNanos += nanos;
+        }
+    }
+
+    // The first body write of the request starts the serialization time
+    public static void markSerializationStart() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null && metrics.serializationStartNanos == 0) {
+            metrics.serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    // -----------------------------
+    // Reading
+    // -----------------------------
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getStatementNanos() {
+        return statementNanos;
+    }
+
+    int getConnections() {
+        return connections;
+    }
+
+    long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+
+    long getSerializationNanos(long endNanos) {
+        return serializationStartNanos == 0 ? 0 : endNanos - serializationStartNanos;
+    }
+}
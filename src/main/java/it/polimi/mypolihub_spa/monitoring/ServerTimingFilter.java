@@ -0,0 +1,88 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Measures every API request: statement count and time, connection wait and body
+ * serialization. The numbers go into a Server-Timing header (when enabled) and, for
+ * requests slower than the threshold, into the "slow-requests" log.
+ * <p>
+ * The header has to be set after the body is written, so the body is buffered while the
+ * header is enabled. Streaming endpoints are left alone: they finish on another thread.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("slow-requests");
+
+    private final boolean headerEnabled;
+    private final long slowRequestNanos;
+
+    public ServerTimingFilter(boolean headerEnabled, long slowRequestMillis) {
+        this.headerEnabled = headerEnabled;
+        this.slowRequestNanos = slowRequestMillis * 1_000_000;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/") || path.endsWith("/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = headerEnabled ? new ContentCachingResponseWrapper(response) : null;
+
+        RequestMetrics metrics = RequestMetrics.start();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, buffered != null ? buffered : response);
+        } finally {
+            long end = System.nanoTime();
+            RequestMetrics.clear();
+
+            if (buffered != null) {
+                if (!buffered.isCommitted()) {
+                    buffered.setHeader("Server-Timing", serverTiming(metrics, end - start, end));
+                }
+                buffered.copyBodyToResponse();
+            }
+            if (end - start >= slowRequestNanos) {
+                logSlowRequest(request, response.getStatus(), metrics, end - start, end);
+            }
+        }
+    }
+
+    // -----------------------------
+
+    private static String serverTiming(RequestMetrics metrics, long totalNanos, long end) {
+        return "db;dur=" + millis(metrics.getStatementNanos()) + ";desc=\"" + metrics.getStatements() + " queries\""
+                + ", conn;dur=" + millis(metrics.getConnectionWaitNanos())
+                + ", ser;dur=" + millis(metrics.getSerializationNanos(end))
+                + ", total;dur=" + millis(totalNanos);
+    }
+
+    private static void logSlowRequest(HttpServletRequest request, int status, RequestMetrics metrics, long totalNanos,
+            long end) {
+        slowLog.warn("{} {} -> {} in {} ms: {} statements in {} ms, {} connections waited {} ms, serialization {} ms",
+                request.getMethod(), request.getRequestURI(), status, millis(totalNanos),
+                metrics.getStatements(), millis(metrics.getStatementNanos()),
+                metrics.getConnections(), millis(metrics.getConnectionWaitNanos()),
+                millis(metrics.getSerializationNanos(end)));
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
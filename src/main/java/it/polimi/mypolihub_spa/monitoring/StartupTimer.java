@@ -0,0 +1,55 @@
+package it.polimi.mypolihub_spa.monitoring;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports how long a node takes to join: from JVM start to application ready, and to the
+ * end of the first request it serves, along with the startup optimizations in use.
+ */
+@Component
+public class StartupTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimer.class);
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private volatile long readyMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        readyMillis = System.currentTimeMillis();
+
+        boolean cds = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+
+        log.info("Ready {} ms after JVM start (context {} ms; AOT {}, CDS archive {}, lazy init {})",
+                readyMillis - runtime.getStartTime(),
+                event.getTimeTaken().toMillis(),
+                AotDetector.useGeneratedArtifacts() ? "on" : "off",
+                cds ? "on" : "off",
+                event.getApplicationContext().getEnvironment().getProperty("spring.main.lazy-initialization", "false"));
+    }
+
+    boolean isFirstRequestPending() {
+        return !firstRequestSeen.get();
+    }
+
+    void onRequestCompleted(String uri) {
+        if (firstRequestSeen.compareAndSet(false, true)) {
+            long now = System.currentTimeMillis();
+
+            log.info("First request ({}) served {} ms after JVM start, {} ms after ready",
+                    uri,
+                    now - ManagementFactory.getRuntimeMXBean().getStartTime(),
+                    readyMillis == 0 ? -1 : now - readyMillis);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package it.polimi.mypolihub_spa.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
+
+import it.polimi.mypolihub_spa.DTO.RegistrationRowDTO;
+import it.polimi.mypolihub_spa.entity.ArchivedRegistration;
+
+public interface ArchivedRegistrationRepository extends JpaRepository<ArchivedRegistration, Integer> {
+    boolean existsByStudent_IdAndExam_Id(Integer studentId, Integer examId);
+    List<ArchivedRegistration> findByReport_Id(Integer reportId, Sort sort);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.RegistrationRowDTO(
+                    r.id, u.name, u.surname, u.email, s.number,
+                    m.id, m.name, d.name, d.yearsOfStudy, st.value, res.id, res.value)
+                from ArchivedRegistration r
+                    join r.student s
+                    join s.user u
+                    join s.major m
+                    join m.degreeLevel d
+                    join r.status st
+                    join r.result res
+                where r.report.id = :reportId
+            """)
+    Stream<RegistrationRowDTO> streamRowsByReport(@Param("reportId") Integer reportId, Sort sort);
+    Optional<ArchivedRegistration> findByStudent_IdAndExam_Id(Integer studentId, Integer examId);
+
+    @Query("""
+                select r.exam.id
+                from ArchivedRegistration r
+                where r.student.id = :studentId
+                  and r.exam.course.id = :courseId
+            """)
+    Set<Integer> findArchivedExamIdsByStudentAndCourse(@Param("studentId") Integer studentId,
+            @Param("courseId") Integer courseId);
+
+    @Query("""
+                select r.exam.id
+                from ArchivedRegistration r
+                where r.student.id = :studentId
+                  and r.exam.course.id in :courseIds
+            """)
+    Set<Integer> findArchivedExamIdsByStudentAndCourses(
+            @Param("studentId") Integer studentId,
+            @Param("courseIds") Collection<Integer> courseIds);
+
+    @Modifying
+    @Query(value = """
+                insert into registrations_archive (id, student_id, exam_id, status_id, result_id, report_id)
+                select r.id, r.student_id, r.exam_id, r.status_id, r.result_id, r.report_id
+                from registrations r
+                where r.report_id in (:reportIds)
+            """, nativeQuery = true)
+    int copyFromRegistrations(@Param("reportIds") List<Integer> reportIds);
+}
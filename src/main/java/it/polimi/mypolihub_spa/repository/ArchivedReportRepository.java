@@ -0,0 +1,24 @@
+package it.polimi.mypolihub_spa.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import it.polimi.mypolihub_spa.entity.ArchivedReport;
+
+public interface ArchivedReportRepository extends JpaRepository<ArchivedReport, Integer> {
+    boolean existsByIdAndExam_Course_Professor_Id(Integer reportId, Integer professorId);
+    List<ArchivedReport> findAllByExam_Course_IdAndExam_Course_Professor_IdOrderByExam_DateAsc(Integer courseId, Integer professorId);
+
+    @Modifying
+    @Query(value = """
+                insert into reports_archive (id, exam_id, timestamp)
+                select r.id, r.exam_id, r.timestamp
+                from reports r
+                where r.id in (:reportIds)
+            """, nativeQuery = true)
+    int copyFromReports(@Param("reportIds") List<Integer> reportIds);
+}
@@ -1,9 +1,23 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import it.polimi.mypolihub_spa.DTO.CourseGroupDTO;
 import it.polimi.mypolihub_spa.entity.CourseMajor;
 
 public interface CourseMajorRepository extends JpaRepository<CourseMajor, Integer> {
-    
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.CourseGroupDTO(c.id, c.name, m.id, m.name, cm.yearOfStudy)
+                from CourseMajor cm
+                join cm.course c
+                join cm.major m
+                where c.id in :courseIds
+            """)
+    List<CourseGroupDTO> findGroupsOfCourses(@Param("courseIds") Collection<Integer> courseIds);
 }
@@ -1,14 +1,55 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import it.polimi.mypolihub_spa.DTO.CourseStudentsCountDTO;
+import it.polimi.mypolihub_spa.DTO.PickerOptionDTO;
 import it.polimi.mypolihub_spa.entity.Course;
 
 public interface CourseRepository extends JpaRepository<Course, Integer> {
     List<Course> findByStudents_IdOrderByNameDesc(Integer studentId);
     List<Course> findByProfessor_IdOrderByNameDesc(Integer professorId);
     List<Course> findByProfessor_IdOrderByNameAsc(Integer professorId);
-}
 
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.PickerOptionDTO(c.id, c.name)
+                from Course c
+                where c.name like :prefix escape '!'
+                order by c.name, c.id
+            """)
+    Slice<PickerOptionDTO> findOptionsByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("""
+                select distinct c
+                from Course c
+                join fetch c.professor p
+                join fetch p.user
+                left join fetch c.courseMajors cm
+                left join fetch cm.major m
+                left join fetch m.degreeLevel
+                where c.id in (
+                    select sc.id
+                    from Course sc
+                    join sc.students s
+                    where s.id = :studentId
+                )
+                order by c.name desc
+            """)
+    List<Course> findDashboardCoursesOfStudent(@Param("studentId") Integer studentId);
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.CourseStudentsCountDTO(c.id, count(s))
+                from Course c
+                join c.students s
+                where c.id in :courseIds
+                group by c.id
+            """)
+    List<CourseStudentsCountDTO> countStudentsOfCourses(@Param("courseIds") Collection<Integer> courseIds);
+}
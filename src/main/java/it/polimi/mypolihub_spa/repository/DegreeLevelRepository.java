@@ -1,10 +1,20 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
 
 import it.polimi.mypolihub_spa.entity.DegreeLevel;
 
 public interface DegreeLevelRepository extends JpaRepository<DegreeLevel, Integer> {
-    
-}
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.degreeLevels")
+    })
+    List<DegreeLevel> findAllByOrderByIdAsc();
+}
@@ -1,14 +1,106 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import it.polimi.mypolihub_spa.DTO.ExamProgressRow;
+import it.polimi.mypolihub_spa.DTO.GroupExamDTO;
 import it.polimi.mypolihub_spa.entity.Exam;
 
 public interface ExamRepository extends JpaRepository<Exam, Integer> {
     boolean existsByIdAndCourse_Professor_Id(Integer examId, Integer professorId);
     boolean existsByIdAndCourse_Students_Id(Integer examId, Integer studentId);
     List<Exam> findAllByCourse_IdOrderByDateDesc(Integer courseId);
-}
+    List<Exam> findAllByCourse_IdInOrderByDateDesc(Collection<Integer> courseIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+                select e
+                from Exam e
+                where e.id = :examId
+                    and e.course.professor.id = :professorId
+            """)
+    Optional<Exam> lockOwnedExam(@Param("examId") Integer examId, @Param("professorId") Integer professorId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Exam e where e.id = :examId")
+    Optional<Exam> lockById(@Param("examId") Integer examId);
 
+    // One row: a seat was taken; none: the exam is full. The declared space keeps these
+    // from evicting the whole second-level cache during a registration rush
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "exams"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+                update exams e
+                set e.seats_taken = e.seats_taken + 1
+                where e.id = :examId
+                    and (e.capacity is null or e.seats_taken < e.capacity)
+            """, nativeQuery = true)
+    int takeSeat(@Param("examId") Integer examId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "exams"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+                update exams e
+                set e.seats_taken = e.seats_taken - 1
+                where e.id = :examId
+                    and e.seats_taken > 0
+            """, nativeQuery = true)
+    int releaseSeat(@Param("examId") Integer examId);
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.GroupExamDTO(c.id, c.name, cm.major.id, cm.yearOfStudy, e.date)
+                from Exam e
+                join e.course c
+                join CourseMajor cm on cm.course = c
+                where cm.major.id in :majorIds
+                    and e.date > :from
+                    and e.date < :to
+            """)
+    List<GroupExamDTO> findGroupExamsBetween(
+            @Param("majorIds") Collection<Integer> majorIds,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    // One row per exam call (or per course without calls); archived rows count as verbalized
+    @Query(value = """
+                SELECT c.id AS courseId,
+                    c.name AS courseName,
+                    e.id AS examId,
+                    e.date AS examDate,
+                    COALESCE(SUM(r.status_id = :notInsertedId), 0) AS notInserted,
+                    COALESCE(SUM(r.status_id = :insertedId), 0) AS inserted,
+                    COALESCE(SUM(r.status_id = :publishedId), 0) AS published,
+                    COALESCE(SUM(r.status_id = :rejectedId), 0) AS rejected,
+                    COALESCE(SUM(r.status_id = :verbalizedId), 0)
+                        + (SELECT COUNT(*) FROM registrations_archive ra WHERE ra.exam_id = e.id) AS verbalized,
+                    (SELECT COUNT(*) FROM reports rep WHERE rep.exam_id = e.id)
+                        + (SELECT COUNT(*) FROM reports_archive repa WHERE repa.exam_id = e.id) AS reports
+                FROM courses c
+                LEFT JOIN exams e ON e.course_id = c.id
+                LEFT JOIN registrations r ON r.exam_id = e.id
+                WHERE c.professor_id = :professorId
+                GROUP BY c.id, c.name, e.id, e.date
+                ORDER BY c.name, e.date DESC
+            """, nativeQuery = true)
+    List<ExamProgressRow> findExamProgressOfProfessor(
+            @Param("professorId") Integer professorId,
+            @Param("notInsertedId") Integer notInsertedId,
+            @Param("insertedId") Integer insertedId,
+            @Param("publishedId") Integer publishedId,
+            @Param("rejectedId") Integer rejectedId,
+            @Param("verbalizedId") Integer verbalizedId);
+}
@@ -2,15 +2,23 @@ package it.polimi.mypolihub_spa.repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
 import it.polimi.mypolihub_spa.entity.Major;
 
 public interface MajorRepository extends JpaRepository<Major, Integer> {
     boolean existsByNameIgnoreCase(String name);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.majorsWithDegreeLevel")
+    })
     @Query("""
             select m
             from Major m
@@ -1,14 +1,40 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
+import it.polimi.mypolihub_spa.DTO.PickerOptionDTO;
 import it.polimi.mypolihub_spa.entity.Professor;
 
 public interface ProfessorRepository extends JpaRepository<Professor, Integer> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "query.professorsWithUser")
+    })
     @Query("select p from Professor p join fetch p.user")
     List<Professor> findAllWithUser();
+
+    @Query("select p from Professor p join fetch p.user u where u.email in :emails")
+    List<Professor> findAllWithUserByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.PickerOptionDTO(p.id, concat(u.surname, ' ', u.name))
+                from Professor p
+                join p.user u
+                where u.surname like :prefix escape '!'
+                    or u.name like :prefix escape '!'
+                order by u.surname, u.name, p.id
+            """)
+    Slice<PickerOptionDTO> findOptionsByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
 }
@@ -1,25 +1,74 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
+import it.polimi.mypolihub_spa.DTO.ExamStatusDTO;
+import it.polimi.mypolihub_spa.DTO.RegistrationRowDTO;
 import it.polimi.mypolihub_spa.entity.Registration;
-import it.polimi.mypolihub_spa.entity.Report;
 import it.polimi.mypolihub_spa.entity.Status;
 
 public interface RegistrationRepository extends JpaRepository<Registration, Integer> {
 	boolean existsByIdAndExam_Course_Professor_Id(Integer registrationId, Integer professorId);
 	boolean existsByStudent_IdAndExam_Id(Integer studentId, Integer examId);
+    @EntityGraph(attributePaths = { "student", "student.user", "student.major" })
     List<Registration> findByExam_Id(Integer examId, Sort sort);
     List<Registration> findByReport_Id(Integer reportId, Sort sort);
 
+    // Integer.MIN_VALUE makes Connector/J stream rows one at a time instead of buffering the result set
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.RegistrationRowDTO(
+                    r.id, r.version, u.name, u.surname, u.email, s.number,
+                    m.id, m.name, d.name, d.yearsOfStudy, st.value, res.id, res.value)
+                from Registration r
+                    join r.student s
+                    join s.user u
+                    join s.major m
+                    join m.degreeLevel d
+                    join r.status st
+                    join r.result res
+                where r.exam.id = :examId
+            """)
+    Stream<RegistrationRowDTO> streamRowsByExam(@Param("examId") Integer examId, Sort sort);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.RegistrationRowDTO(
+                    r.id, r.version, u.name, u.surname, u.email, s.number,
+                    m.id, m.name, d.name, d.yearsOfStudy, st.value, res.id, res.value)
+                from Registration r
+                    join r.student s
+                    join s.user u
+                    join s.major m
+                    join m.degreeLevel d
+                    join r.status st
+                    join r.result res
+                where r.report.id = :reportId
+            """)
+    Stream<RegistrationRowDTO> streamRowsByReport(@Param("reportId") Integer reportId, Sort sort);
+
     @Query("""
                 select r.exam.id
                 from Registration r
@@ -28,10 +77,21 @@ public interface RegistrationRepository extends JpaRepository<Registration, Inte
             """)
     Set<Integer> findRegisteredExamIdsByStudentAndCourse(Integer studentId, Integer courseId);
 
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.ExamStatusDTO(r.exam.id, r.status.id)
+                from Registration r
+                where r.student.id = :studentId
+                  and r.exam.course.id in :courseIds
+            """)
+    List<ExamStatusDTO> findExamStatusesByStudentAndCourses(
+            @Param("studentId") Integer studentId,
+            @Param("courseIds") Collection<Integer> courseIds);
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
                 update Registration r
-                set r.status = :published
+                set r.status = :published,
+                    r.version = r.version + 1
                 where r.exam.id = :examId
                     and r.status.id = :insertedId
             """)
@@ -39,6 +99,9 @@ public interface RegistrationRepository extends JpaRepository<Registration, Inte
             @Param("insertedId") Integer insertedId,
             @Param("published") Status published);
 
+    boolean existsByExam_IdAndStatus_IdInAndReportIsNull(Integer examId, Set<Integer> statusIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registrations"))
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query(value = """
                 update registrations r
@@ -46,30 +109,100 @@ public interface RegistrationRepository extends JpaRepository<Registration, Inte
                 	when r.status_id = :rejectedId then :postponedId
                 	else r.result_id
         		end,
-        		r.status_id = :verbalizedId
+        		r.status_id = :verbalizedId,
+        		r.report_id = :reportId,
+        		r.version = r.version + 1
         		where r.exam_id = :examId
         			and r.status_id in (:toBeVerbalizedIds)
         			and r.report_id is null
     		""", nativeQuery = true)
-    int finalizeAll(
+    int finalizeInto(
             @Param("examId") Integer examId,
+            @Param("reportId") Integer reportId,
             @Param("toBeVerbalizedIds") Set<Integer> toBeVerbalizedIds,
             @Param("verbalizedId") Integer verbalizedId,
             @Param("rejectedId") Integer rejectedId,
             @Param("postponedId") Integer postponedId);
 
+    Optional<Registration> findByStudent_IdAndExam_Id(Integer studentId, Integer examId);
+
+    // Locking read: unlike the derived exists, it sees rows committed after the snapshot was taken
+    @Query(value = """
+                select count(*)
+                from registrations r
+                where r.student_id = :studentId
+                    and r.exam_id = :examId
+                for share
+            """, nativeQuery = true)
+    long countCurrentByStudentAndExam(@Param("studentId") Integer studentId, @Param("examId") Integer examId);
+
+    // Guarded transitions: the allowed source states are part of the WHERE clause, so the
+    // affected-row count alone says whether the transition happened
+
+    // Only this table changed: without it Hibernate evicts every second-level cache region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registrations"))
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("""
-                update Registration r
-                set r.report = :report
-                where r.exam.id = :examId
-                    and r.status.id = :verbalizedId
-                    and r.report is null
-            """)
-    int updateReport(
+    @Query(value = """
+                update registrations r
+                join exams e on e.id = r.exam_id
+                join courses c on c.id = e.course_id
+                set r.result_id = :resultId,
+                    r.status_id = :insertedId,
+                    r.version = r.version + 1
+                where r.id = :registrationId
+                    and c.professor_id = :professorId
+                    and r.status_id in (:editableIds)
+                    and (:expectedVersion is null or r.version = :expectedVersion)
+            """, nativeQuery = true)
+    int setResultIfEditable(
+            @Param("registrationId") Integer registrationId,
+            @Param("professorId") Integer professorId,
+            @Param("resultId") Integer resultId,
+            @Param("expectedVersion") Integer expectedVersion,
+            @Param("editableIds") Set<Integer> editableIds,
+            @Param("insertedId") Integer insertedId);
+
+    // Only before the exam and while no grade has been entered
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registrations"))
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+                delete r
+                from registrations r
+                join exams e on e.id = r.exam_id
+                where r.student_id = :studentId
+                    and r.exam_id = :examId
+                    and r.status_id = :notInsertedId
+                    and e.date > :now
+            """, nativeQuery = true)
+    int deleteIfNotGraded(
+            @Param("studentId") Integer studentId,
             @Param("examId") Integer examId,
-            @Param("verbalizedId") Integer verbalizedId,
-            @Param("report") Report report);
+            @Param("notInsertedId") Integer notInsertedId,
+            @Param("now") LocalDateTime now);
 
-    Optional<Registration> findByStudent_IdAndExam_Id(Integer studentId, Integer examId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "registrations"))
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+                update registrations r
+                set r.status_id = :rejectedId,
+                    r.version = r.version + 1
+                where r.student_id = :studentId
+                    and r.exam_id = :examId
+                    and r.status_id in (:declinableIds)
+                    and r.result_id >= :minPassingResultId
+                    and r.report_id is null
+            """, nativeQuery = true)
+    int declineIfPublished(
+            @Param("studentId") Integer studentId,
+            @Param("examId") Integer examId,
+            @Param("declinableIds") Set<Integer> declinableIds,
+            @Param("minPassingResultId") Integer minPassingResultId,
+            @Param("rejectedId") Integer rejectedId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+                delete from Registration r
+                where r.report.id in :reportIds
+            """)
+    int deleteByReportIds(@Param("reportIds") List<Integer> reportIds);
 }
@@ -1,12 +1,26 @@
 package it.polimi.mypolihub_spa.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import it.polimi.mypolihub_spa.entity.Report;
 
 public interface ReportRepository extends JpaRepository<Report, Integer> {
     boolean existsByIdAndExam_Course_Professor_Id(Integer reportId, Integer professorId);
     List<Report> findAllByExam_Course_IdAndExam_Course_Professor_IdOrderByExam_DateAsc(Integer courseId, Integer professorId);
+    Optional<Report> findFirstByExam_IdOrderByTimestampDescIdDesc(Integer examId);
+
+    @Query("""
+                select r.id
+                from Report r
+                where r.exam.date < :cutoff
+                order by r.id
+            """)
+    List<Integer> findIdsOfReportsForExamsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
@@ -0,0 +1,41 @@
+package it.polimi.mypolihub_spa.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import it.polimi.mypolihub_spa.DTO.SeatRowDTO;
+import it.polimi.mypolihub_spa.DTO.SeatingRoomDTO;
+import it.polimi.mypolihub_spa.entity.SeatAssignment;
+
+public interface SeatAssignmentRepository extends JpaRepository<SeatAssignment, Integer> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from SeatAssignment a where a.exam.id = :examId")
+    int deleteByExam(@Param("examId") Integer examId);
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.SeatingRoomDTO(a.room, count(a), min(a.seat), max(a.seat))
+                from SeatAssignment a
+                where a.exam.id = :examId
+                group by a.room
+                order by a.room
+            """)
+    List<SeatingRoomDTO> findRoomsByExam(@Param("examId") Integer examId);
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.SeatRowDTO(a.room, a.seat, s.number, u.surname, u.name, m.name)
+                from SeatAssignment a
+                    join a.registration r
+                    join r.student s
+                    join s.user u
+                    join s.major m
+                where a.exam.id = :examId
+                    and (:room is null or a.room = :room)
+                order by a.room, a.seat
+            """)
+    List<SeatRowDTO> findRowsByExam(@Param("examId") Integer examId, @Param("room") String room);
+}
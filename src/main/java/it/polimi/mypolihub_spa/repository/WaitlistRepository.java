@@ -0,0 +1,43 @@
+package it.polimi.mypolihub_spa.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+import it.polimi.mypolihub_spa.DTO.WaitlistPositionDTO;
+import it.polimi.mypolihub_spa.entity.WaitlistEntry;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Integer> {
+    boolean existsByStudent_IdAndExam_Id(Integer studentId, Integer examId);
+    long countByExam_IdAndIdLessThanEqual(Integer examId, Integer entryId);
+
+    // Next student to promote
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<WaitlistEntry> findFirstByExam_IdOrderByIdAsc(Integer examId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+                delete from WaitlistEntry w
+                where w.student.id = :studentId
+                    and w.exam.id = :examId
+            """)
+    int deleteByStudentAndExam(@Param("studentId") Integer studentId, @Param("examId") Integer examId);
+
+    @Query("""
+                select new it.polimi.mypolihub_spa.DTO.WaitlistPositionDTO(w.exam.id,
+                    (select count(a) from WaitlistEntry a where a.exam = w.exam and a.id <= w.id))
+                from WaitlistEntry w
+                where w.student.id = :studentId
+                    and w.exam.course.id in :courseIds
+            """)
+    List<WaitlistPositionDTO> findPositionsByStudentAndCourses(@Param("studentId") Integer studentId,
+            @Param("courseIds") Collection<Integer> courseIds);
+}
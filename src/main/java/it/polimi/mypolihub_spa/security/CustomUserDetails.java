@@ -2,15 +2,16 @@ package it.polimi.mypolihub_spa.security;
 
 import java.util.Collection;
 
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-public class CustomUserDetails implements UserDetails {
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
     private final Integer id;
     private final String name;
     private final String surname;
     private final String email;
-    private final String passwordHash;
+    private String passwordHash;
     private final Collection<? extends GrantedAuthority> authorities;
 
     public CustomUserDetails(Integer id, String name, String surname, String email, String passwordHash,
@@ -49,6 +50,12 @@ public class CustomUserDetails implements UserDetails {
         return passwordHash;
     }
 
+    // Called after login: the hash must not end up in the (possibly shared) session
+    @Override
+    public void eraseCredentials() {
+        passwordHash = null;
+    }
+
     @Override
     public String getUsername() {
         return email;
@@ -0,0 +1,116 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.polimi.mypolihub_spa.DTO.AdminCountersDTO;
+import it.polimi.mypolihub_spa.DTO.PickerOptionDTO;
+import it.polimi.mypolihub_spa.DTO.PickerPageDTO;
+import it.polimi.mypolihub_spa.entity.DegreeLevel;
+import it.polimi.mypolihub_spa.entity.Major;
+import it.polimi.mypolihub_spa.repository.CourseRepository;
+import it.polimi.mypolihub_spa.repository.DegreeLevelRepository;
+import it.polimi.mypolihub_spa.repository.MajorRepository;
+import it.polimi.mypolihub_spa.repository.ProfessorRepository;
+import it.polimi.mypolihub_spa.repository.UserRepository;
+
+@Service
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminDashboardService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    @Autowired
+    private DegreeLevelRepository degreeLevelRepository;
+
+    @Value("${app.admin.counters-ttl-seconds:60}")
+    private long countersTtlSeconds;
+
+    private volatile CachedCounters counters;
+
+    // -----------------------------
+    // Panel model
+    // -----------------------------
+
+    public AdminCountersDTO getCounters() {
+        CachedCounters current = counters;
+
+        if (current == null || current.expiresAt() < System.currentTimeMillis()) {
+            AdminCountersDTO fresh = new AdminCountersDTO(userRepository.count(), courseRepository.count());
+            current = new CachedCounters(fresh, System.currentTimeMillis() + countersTtlSeconds * 1000);
+            counters = current;
+        }
+
+        return current.value();
+    }
+
+    public void evictCounters() {
+        counters = null;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Major> getMajors() {
+        return majorRepository.findAllWithDegreeLevel();
+    }
+
+    @Transactional(readOnly = true)
+    public List<DegreeLevel> getDegreeLevels() {
+        return degreeLevelRepository.findAllByOrderByIdAsc();
+    }
+
+    // -----------------------------
+    // Pickers
+    // -----------------------------
+
+    @Transactional(readOnly = true)
+    public PickerPageDTO searchCourses(String query, int page, int size) {
+        Slice<PickerOptionDTO> slice = courseRepository.findOptionsByNamePrefix(toPrefix(query), toPageRequest(page, size));
+
+        return new PickerPageDTO(slice.getContent(), slice.getNumber(), slice.hasNext());
+    }
+
+    @Transactional(readOnly = true)
+    public PickerPageDTO searchProfessors(String query, int page, int size) {
+        Slice<PickerOptionDTO> slice = professorRepository.findOptionsByNamePrefix(toPrefix(query), toPageRequest(page, size));
+
+        return new PickerPageDTO(slice.getContent(), slice.getNumber(), slice.hasNext());
+    }
+
+    private String toPrefix(String query) {
+        String trimmed = query == null ? "" : query.trim();
+
+        return trimmed
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+    }
+
+    private PageRequest toPageRequest(int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+
+        return PageRequest.of(page, Math.clamp(size, 1, MAX_PAGE_SIZE));
+    }
+
+    private record CachedCounters(AdminCountersDTO value, long expiresAt) {}
+}
@@ -0,0 +1,33 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveJob.class);
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveOldReports() {
+        LocalDateTime cutoff = archiveService.getCutoff();
+
+        int archived = 0;
+        int batch;
+        while ((batch = archiveService.archiveNextBatch(cutoff)) > 0) {
+            archived += batch;
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} reports for exams before {}", archived, cutoff);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.polimi.mypolihub_spa.repository.ArchivedRegistrationRepository;
+import it.polimi.mypolihub_spa.repository.ArchivedReportRepository;
+import it.polimi.mypolihub_spa.repository.RegistrationRepository;
+import it.polimi.mypolihub_spa.repository.ReportRepository;
+
+@Service
+public class ArchiveService {
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private ArchivedReportRepository archivedReportRepository;
+
+    @Autowired
+    private ArchivedRegistrationRepository archivedRegistrationRepository;
+
+    @Value("${app.archive.retention-years:2}")
+    private int retentionYears;
+
+    @Value("${app.archive.batch-size:200}")
+    private int batchSize;
+
+    public LocalDateTime getCutoff() {
+        return LocalDate.now().minusYears(retentionYears).atStartOfDay();
+    }
+
+    /**
+     * Moves the next batch of reports for exams held before the cutoff, together
+     * with their verbalized registrations, into the archive tables.
+     *
+     * @return the number of reports archived, 0 when nothing is left to archive
+     */
+    @Transactional
+    public int archiveNextBatch(LocalDateTime cutoff) {
+        List<Integer> reportIds = reportRepository.findIdsOfReportsForExamsBefore(cutoff, PageRequest.of(0, batchSize));
+        if (reportIds.isEmpty()) {
+            return 0;
+        }
+
+        archivedReportRepository.copyFromReports(reportIds);
+        archivedRegistrationRepository.copyFromRegistrations(reportIds);
+
+        registrationRepository.deleteByReportIds(reportIds);
+        reportRepository.deleteAllByIdInBatch(reportIds);
+
+        return reportIds.size();
+    }
+}
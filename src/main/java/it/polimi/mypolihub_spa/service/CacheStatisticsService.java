@@ -0,0 +1,51 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import it.polimi.mypolihub_spa.DTO.CacheRegionStatsDTO;
+
+@Service
+public class CacheStatisticsService {
+
+    private static final List<String> QUERY_REGIONS = List.of(
+            "query.majorsWithDegreeLevel",
+            "query.professorsWithUser",
+            "query.degreeLevels",
+            "default-query-results-region");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            addIfPresent(regions, statistics.getCacheRegionStatistics(region));
+        }
+
+        for (String region : QUERY_REGIONS) {
+            addIfPresent(regions, statistics.getQueryRegionStatistics(region));
+        }
+
+        return regions;
+    }
+
+    private void addIfPresent(List<CacheRegionStatsDTO> regions, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics != null) {
+            regions.add(new CacheRegionStatsDTO(regionStatistics));
+        }
+    }
+}
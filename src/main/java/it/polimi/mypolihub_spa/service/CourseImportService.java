@@ -0,0 +1,261 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import it.polimi.mypolihub_spa.DTO.UserImportReportDTO;
+import it.polimi.mypolihub_spa.entity.Course;
+import it.polimi.mypolihub_spa.entity.Major;
+import it.polimi.mypolihub_spa.entity.Professor;
+import it.polimi.mypolihub_spa.entity.Semester;
+import it.polimi.mypolihub_spa.repository.CourseRepository;
+import it.polimi.mypolihub_spa.repository.MajorRepository;
+import it.polimi.mypolihub_spa.repository.ProfessorRepository;
+
+/**
+ * Imports a course catalog, one course per line:
+ * {@code name;cfu;semester;professorEmail;major:year,major:year}
+ */
+@Service
+public class CourseImportService {
+
+    private static final String FIELD_SEPARATOR = ";";
+    private static final String MAJOR_SEPARATOR = ",";
+    private static final String YEAR_SEPARATOR = ":";
+    private static final int FIELDS = 5;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.import.batch-size:100}")
+    private int batchSize;
+
+    private record Row(int line, String raw, String[] fields) {
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public UserImportReportDTO importCoursesFromUpload(MultipartFile file) {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+
+            return importCourses(readRows(br));
+
+        } catch (IOException e) {
+            throw new RuntimeException("Upload file error", e);
+        }
+    }
+
+    private List<Row> readRows(BufferedReader br) throws IOException {
+        List<Row> rows = new ArrayList<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = br.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+
+            if (!line.isEmpty()) {
+                rows.add(new Row(lineNumber, line, line.split(FIELD_SEPARATOR, -1)));
+            }
+        }
+
+        return rows;
+    }
+
+    private UserImportReportDTO importCourses(List<Row> rows) {
+        UserImportReportDTO report = new UserImportReportDTO();
+
+        // Every major and professor referenced by the file is resolved up front, in two queries
+        Map<String, Major> majorsByName = majorRepository.findAllWithDegreeLevel().stream()
+                .collect(Collectors.toMap(m -> normalizeKey(m.getName()), Function.identity(), (a, b) -> a));
+        Map<String, Professor> professorsByEmail = loadProfessors(rows);
+
+        Set<String> seenNames = new HashSet<>();
+        List<Course> pending = new ArrayList<>(batchSize);
+
+        for (Row row : rows) {
+            try {
+                Course course = buildCourse(row, majorsByName, professorsByEmail);
+
+                if (!seenNames.add(normalizeKey(course.getName()))) {
+                    throw new IllegalArgumentException("course listed twice in the file");
+                }
+
+                pending.add(course);
+                report.incCreated();
+            } catch (IllegalArgumentException e) {
+                report.incSkipped();
+                report.addError("Line " + row.line() + " ('" + row.raw() + "'): " + e.getMessage());
+            }
+
+            if (pending.size() >= batchSize) {
+                flush(pending);
+            }
+        }
+
+        flush(pending);
+
+        return report;
+    }
+
+    private Map<String, Professor> loadProfessors(List<Row> rows) {
+        Set<String> emails = new HashSet<>();
+        for (Row row : rows) {
+            if (row.fields().length == FIELDS) {
+                emails.add(normalizeKey(row.fields()[3]));
+            }
+        }
+
+        if (emails.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Professor> professors = new HashMap<>();
+        for (Professor professor : professorRepository.findAllWithUserByEmailIn(emails)) {
+            professors.put(normalizeKey(professor.getUser().getEmail()), professor);
+        }
+
+        return professors;
+    }
+
+    private Course buildCourse(Row row, Map<String, Major> majorsByName, Map<String, Professor> professorsByEmail) {
+        String[] fields = row.fields();
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("expected " + FIELDS + " fields separated by '" + FIELD_SEPARATOR + "'");
+        }
+
+        String name = fields[0].trim().replaceAll("\\s+", " ");
+        if (name.isBlank()) {
+            throw new IllegalArgumentException("course name is blank");
+        }
+
+        int cfu = parseCfu(fields[1]);
+        Semester semester = parseSemester(fields[2]);
+
+        String email = normalizeKey(fields[3]);
+        Professor professor = professorsByEmail.get(email);
+        if (professor == null) {
+            throw new IllegalArgumentException("professor not found: " + email);
+        }
+
+        Map<Major, Integer> years = parseMajors(fields[4], majorsByName);
+
+        Course course = new Course();
+        course.setName(name);
+        course.setCfu(cfu);
+        course.setSemester(semester);
+        course.setProfessor(professor);
+
+        years.forEach(course::addMajor);
+
+        return course;
+    }
+
+    private int parseCfu(String raw) {
+        try {
+            int cfu = Integer.parseInt(raw.trim());
+            if (cfu < 1) {
+                throw new IllegalArgumentException("CFU must be positive");
+            }
+            return cfu;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("CFU is not a number: " + raw.trim());
+        }
+    }
+
+    private Semester parseSemester(String raw) {
+        try {
+            return Semester.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("semester must be PRIMO or SECONDO: " + raw.trim());
+        }
+    }
+
+    private Map<Major, Integer> parseMajors(String raw, Map<String, Major> majorsByName) {
+        Map<Major, Integer> years = new LinkedHashMap<>();
+
+        for (String pair : raw.split(MAJOR_SEPARATOR)) {
+            if (pair.isBlank()) {
+                continue;
+            }
+
+            int separator = pair.lastIndexOf(YEAR_SEPARATOR);
+            if (separator == -1) {
+                throw new IllegalArgumentException("major without year: " + pair.trim());
+            }
+
+            String majorName = pair.substring(0, separator);
+            Major major = majorsByName.get(normalizeKey(majorName));
+            if (major == null) {
+                throw new IllegalArgumentException("major not found: " + majorName.trim());
+            }
+
+            int year;
+            try {
+                year = Integer.parseInt(pair.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("year is not a number for major " + major.getName());
+            }
+
+            if (year < 1 || year > major.getDegreeLevel().getYearsOfStudy()) {
+                throw new IllegalArgumentException("year " + year + " does not match the degree of " + major.getName());
+            }
+
+            if (years.put(major, year) != null) {
+                throw new IllegalArgumentException("major listed twice: " + major.getName());
+            }
+        }
+
+        if (years.isEmpty()) {
+            throw new IllegalArgumentException("at least one major:year pair is required");
+        }
+
+        return years;
+    }
+
+    private void flush(List<Course> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        courseRepository.saveAll(pending);
+        entityManager.flush();
+
+        pending.clear();
+    }
+
+    private String normalizeKey(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
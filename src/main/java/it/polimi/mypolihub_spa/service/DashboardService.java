@@ -0,0 +1,165 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.polimi.mypolihub_spa.DTO.CourseStudentsCountDTO;
+import it.polimi.mypolihub_spa.DTO.DashboardCourseDTO;
+import it.polimi.mypolihub_spa.DTO.DashboardExamDTO;
+import it.polimi.mypolihub_spa.DTO.DashboardMajorDTO;
+import it.polimi.mypolihub_spa.DTO.ExamProgressRow;
+import it.polimi.mypolihub_spa.DTO.ExamStatusDTO;
+import it.polimi.mypolihub_spa.DTO.OverviewCourseDTO;
+import it.polimi.mypolihub_spa.DTO.OverviewExamDTO;
+import it.polimi.mypolihub_spa.DTO.StudentDashboardDTO;
+import it.polimi.mypolihub_spa.DTO.WaitlistPositionDTO;
+import it.polimi.mypolihub_spa.entity.Course;
+import it.polimi.mypolihub_spa.entity.CourseMajor;
+import it.polimi.mypolihub_spa.entity.DefaultValues;
+import it.polimi.mypolihub_spa.entity.Exam;
+import it.polimi.mypolihub_spa.entity.User;
+import it.polimi.mypolihub_spa.repository.ArchivedRegistrationRepository;
+import it.polimi.mypolihub_spa.repository.CourseRepository;
+import it.polimi.mypolihub_spa.repository.ExamRepository;
+import it.polimi.mypolihub_spa.repository.RegistrationRepository;
+import it.polimi.mypolihub_spa.repository.WaitlistRepository;
+
+@Service
+public class DashboardService {
+
+    private static final Set<Integer> PUBLISHED_STATUS_IDS = Set.of(
+            DefaultValues.STATUS_PUBBLICATO_ID,
+            DefaultValues.STATUS_RIFIUTATO_ID,
+            DefaultValues.STATUS_VERBALIZZATO_ID);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private ArchivedRegistrationRepository archivedRegistrationRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    // -----------------------------
+    // Student dashboard
+    // -----------------------------
+
+    // Six queries whatever the number of courses: courses (with professor and majors),
+    // student counts, exams, current registrations, archived registrations, waitlist places
+    @Transactional(readOnly = true)
+    public StudentDashboardDTO getStudentDashboard(Integer studentId) {
+        List<Course> courses = courseRepository.findDashboardCoursesOfStudent(studentId);
+        if (courses.isEmpty()) {
+            return new StudentDashboardDTO(List.of(), List.of());
+        }
+
+        List<Integer> courseIds = courses.stream().map(Course::getId).toList();
+
+        Map<Integer, Long> studentsByCourse = courseRepository.countStudentsOfCourses(courseIds).stream()
+                .collect(Collectors.toMap(CourseStudentsCountDTO::courseId, CourseStudentsCountDTO::students));
+
+        Map<Integer, Integer> statusByExam = new HashMap<>();
+        for (ExamStatusDTO registration : registrationRepository.findExamStatusesByStudentAndCourses(studentId, courseIds)) {
+            statusByExam.put(registration.examId(), registration.statusId());
+        }
+        for (Integer examId : archivedRegistrationRepository.findArchivedExamIdsByStudentAndCourses(studentId, courseIds)) {
+            statusByExam.put(examId, DefaultValues.STATUS_VERBALIZZATO_ID);
+        }
+
+        Map<Integer, Long> waitlistPositionByExam = waitlistRepository
+                .findPositionsByStudentAndCourses(studentId, courseIds).stream()
+                .collect(Collectors.toMap(WaitlistPositionDTO::examId, WaitlistPositionDTO::position));
+
+        Map<Integer, List<DashboardExamDTO>> examsByCourse = new HashMap<>();
+        for (Exam exam : examRepository.findAllByCourse_IdInOrderByDateDesc(courseIds)) {
+            Integer courseId = exam.getCourse().getId();
+            Integer statusId = statusByExam.get(exam.getId());
+
+            examsByCourse.computeIfAbsent(courseId, id -> new ArrayList<>())
+                    .add(new DashboardExamDTO(exam.getId(), courseId, exam.getDate(), statusId != null,
+                            statusId != null && PUBLISHED_STATUS_IDS.contains(statusId),
+                            exam.getCapacity(), exam.getSeatsTaken(), waitlistPositionByExam.get(exam.getId())));
+        }
+
+        List<DashboardCourseDTO> courseDTOs = courses.stream()
+                .map(course -> toDashboardCourse(course, studentsByCourse.getOrDefault(course.getId(), 0L),
+                        examsByCourse.getOrDefault(course.getId(), List.of())))
+                .toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DashboardExamDTO> upcoming = examsByCourse.values().stream()
+                .flatMap(List::stream)
+                .filter(exam -> exam.date().isAfter(now))
+                .sorted(Comparator.comparing(DashboardExamDTO::date))
+                .toList();
+
+        return new StudentDashboardDTO(courseDTOs, upcoming);
+    }
+
+    private DashboardCourseDTO toDashboardCourse(Course course, long studentsCount, List<DashboardExamDTO> exams) {
+        User professor = course.getProfessor().getUser();
+
+        List<DashboardMajorDTO> majors = new ArrayList<>();
+        for (CourseMajor courseMajor : course.getCourseMajors()) {
+            majors.add(new DashboardMajorDTO(
+                    courseMajor.getMajor().getName(),
+                    courseMajor.getMajor().getDegreeLevel().getName(),
+                    courseMajor.getYearOfStudy()));
+        }
+
+        return new DashboardCourseDTO(course.getId(), course.getName(), course.getCfu(), course.getSemester(),
+                course.getYear(), professor.getName(), professor.getSurname(), studentsCount, majors, exams);
+    }
+
+    // -----------------------------
+    // Professor overview
+    // -----------------------------
+
+    @Transactional(readOnly = true)
+    public List<OverviewCourseDTO> getProfessorOverview(Integer professorId) {
+        List<ExamProgressRow> rows = examRepository.findExamProgressOfProfessor(
+                professorId,
+                DefaultValues.STATUS_NON_INSERITO_ID,
+                DefaultValues.STATUS_INSERITO_ID,
+                DefaultValues.STATUS_PUBBLICATO_ID,
+                DefaultValues.STATUS_RIFIUTATO_ID,
+                DefaultValues.STATUS_VERBALIZZATO_ID);
+
+        Map<Integer, String> courseNames = new LinkedHashMap<>();
+        Map<Integer, List<OverviewExamDTO>> examsByCourse = new HashMap<>();
+
+        for (ExamProgressRow row : rows) {
+            courseNames.putIfAbsent(row.getCourseId(), row.getCourseName());
+            List<OverviewExamDTO> exams = examsByCourse.computeIfAbsent(row.getCourseId(), id -> new ArrayList<>());
+
+            if (row.getExamId() != null) {
+                exams.add(new OverviewExamDTO(row.getExamId(), row.getExamDate(), row.getNotInserted(),
+                        row.getInserted(), row.getPublished(), row.getRejected(), row.getVerbalized(),
+                        row.getReports()));
+            }
+        }
+
+        return courseNames.entrySet().stream()
+                .map(course -> new OverviewCourseDTO(course.getKey(), course.getValue(),
+                        examsByCourse.get(course.getKey())))
+                .toList();
+    }
+}
@@ -2,7 +2,11 @@ package it.polimi.mypolihub_spa.service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +17,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import it.polimi.mypolihub_spa.DTO.BulkResultUpdateDTO;
 import it.polimi.mypolihub_spa.DTO.ExamDTO;
+import it.polimi.mypolihub_spa.DTO.ExamRegistrationDTO;
 import it.polimi.mypolihub_spa.DTO.RegistrationDTO;
+import it.polimi.mypolihub_spa.entity.BaseRegistration;
 import it.polimi.mypolihub_spa.entity.Course;
 import it.polimi.mypolihub_spa.entity.DefaultValues;
 import it.polimi.mypolihub_spa.entity.Exam;
@@ -22,12 +28,16 @@ import it.polimi.mypolihub_spa.entity.Report;
 import it.polimi.mypolihub_spa.entity.Result;
 import it.polimi.mypolihub_spa.entity.Status;
 import it.polimi.mypolihub_spa.entity.Student;
+import it.polimi.mypolihub_spa.entity.WaitlistEntry;
+import it.polimi.mypolihub_spa.exception.RegistrationConflictException;
+import it.polimi.mypolihub_spa.repository.ArchivedRegistrationRepository;
 import it.polimi.mypolihub_spa.repository.CourseRepository;
 import it.polimi.mypolihub_spa.repository.ExamRepository;
 import it.polimi.mypolihub_spa.repository.RegistrationRepository;
 import it.polimi.mypolihub_spa.repository.ResultRepository;
 import it.polimi.mypolihub_spa.repository.StatusRepository;
 import it.polimi.mypolihub_spa.repository.StudentRepository;
+import it.polimi.mypolihub_spa.repository.WaitlistRepository;
 import it.polimi.mypolihub_spa.utils.SortUtility;
 
 @Service
@@ -45,6 +55,9 @@ public class ExamService {
 	@Autowired
 	private RegistrationRepository registrationRepository;
 
+	@Autowired
+	private ArchivedRegistrationRepository archivedRegistrationRepository;
+
 	@Autowired
 	private ResultRepository resultRepository;
 
@@ -54,6 +67,9 @@ public class ExamService {
 	@Autowired
 	private StudentRepository studentRepository;
 
+	@Autowired
+	private WaitlistRepository waitlistRepository;
+
 	private static final Set<Integer> EDITABLE_STATUS_IDS = Set.of(
 			DefaultValues.STATUS_NON_INSERITO_ID,
 			DefaultValues.STATUS_INSERITO_ID);
@@ -75,12 +91,17 @@ public class ExamService {
 	// -----------------------------
 
 	@Transactional
-	public void addExamCall(Integer courseId, LocalDateTime date) {
+	public void addExamCall(Integer courseId, LocalDateTime date, Integer capacity) {
 		Course course = getCourse(courseId);
 
+		if (capacity != null && capacity < 1) {
+			throw new IllegalArgumentException("La capienza deve essere almeno di un posto");
+		}
+
 		Exam exam = new Exam();
 		exam.setCourse(course);
 		exam.setDate(date);
+		exam.setCapacity(capacity);
 
 		examRepository.save(exam);
 	}
@@ -98,40 +119,89 @@ public class ExamService {
 
 	@Transactional(readOnly = true)
 	public Set<Integer> getRegisteredExamIds(Integer studentId, Integer courseId) {
-		return registrationRepository.findRegisteredExamIdsByStudentAndCourse(studentId, courseId);
+		Set<Integer> examIds = new HashSet<>(
+				registrationRepository.findRegisteredExamIdsByStudentAndCourse(studentId, courseId));
+		examIds.addAll(archivedRegistrationRepository.findArchivedExamIdsByStudentAndCourse(studentId, courseId));
+
+		return examIds;
 	}
 
+	// The seat is taken last, so the exam row is locked only for the insert and the commit:
+	// registrations to the same exam queue up on it for as short as possible
 	@Transactional
-	public void registerStudentForExam(Integer studentId, Integer examId) {
+	public ExamRegistrationDTO registerStudentForExam(Integer studentId, Integer examId) {
 		Student student = getStudent(studentId);
 		Exam exam = getExam(examId);
 
 		assertStudentEnrolledInExamCourse(studentId, examId);
 		assertStudentNotAlreadyRegisteredForExamCall(studentId, examId);
+		assertStudentNotOnWaitlist(studentId, examId);
+
+		if (examRepository.takeSeat(examId) == 0) {
+			// Full: hold the exam row, so that a concurrent unregistration has either freed
+			// its seat already or will find this entry and promote it
+			examRepository.lockById(examId);
+
+			// The checks above read the transaction snapshot: a double submit that took the
+			// last seat has committed by now, and only a current read sees its registration
+			if (registrationRepository.countCurrentByStudentAndExam(studentId, examId) > 0) {
+				throw new IllegalArgumentException("Sei già iscritto a questo appello");
+			}
+
+			if (examRepository.takeSeat(examId) == 0) {
+				return addToWaitlist(student, exam);
+			}
+		}
 
-		Registration registration = new Registration();
-		registration.setStudent(student);
-		registration.setExam(exam);
-		registration.setResult(getResult(DefaultValues.RESULT_VUOTO_ID));
-		registration.setStatus(getStatus(DefaultValues.STATUS_NON_INSERITO_ID));
+		saveNewRegistration(student, exam);
+		return ExamRegistrationDTO.registered();
+	}
 
-		registrationRepository.save(registration);
+	// Leaves the waitlist, or gives the seat back to the first student waiting for it
+	@Transactional
+	public void unregisterStudentFromExam(Integer studentId, Integer examId) {
+		if (waitlistRepository.deleteByStudentAndExam(studentId, examId) > 0) {
+			return;
+		}
+
+		int rows = registrationRepository.deleteIfNotGraded(studentId, examId,
+				DefaultValues.STATUS_NON_INSERITO_ID, LocalDateTime.now());
+
+		if (rows == 0) {
+			Registration registration = getRegistrationByStudentId(studentId, examId);
+			if (!registration.getExam().getDate().isAfter(LocalDateTime.now())) {
+				throw new IllegalArgumentException("L'appello si è già svolto");
+			}
+			throw new IllegalArgumentException("Non puoi annullare l'iscrizione dopo l'inserimento del voto");
+		}
+
+		// Locks the exam row until commit: promotions of the same exam run one at a time
+		examRepository.releaseSeat(examId);
+		promoteFromWaitlist(examId);
 	}
 
 	@Transactional(readOnly = true)
 	public RegistrationDTO getResultByStudentIdAndExamId(Integer studentId, Integer examId) {
-		Registration registration = getRegistrationByStudentId(studentId, examId);
+		BaseRegistration registration = getCurrentOrArchivedRegistrationByStudentId(studentId, examId);
 		assertVisibleToStudent(registration);
 		return new RegistrationDTO(registration);
 	}
 
 	@Transactional
 	public void declineExamResult(Integer studentId, Integer examId) {
-		Registration registration = getRegistrationByStudentId(studentId, examId);
-
-		assertDeclinable(registration);
+		int rows = registrationRepository.declineIfPublished(
+				studentId,
+				examId,
+				TO_BE_DECLINED_STATUS_IDS,
+				DefaultValues.RESULT_18_ID,
+				DefaultValues.STATUS_RIFIUTATO_ID);
 
-		registration.setStatus(getStatus(DefaultValues.STATUS_RIFIUTATO_ID));
+		if (rows == 0) {
+			// Not declined: find out why, only on this (rare) path
+			Registration registration = getRegistrationByStudentId(studentId, examId);
+			assertDeclinable(registration);
+			throw new IllegalArgumentException("Non puoi rifiutare questo voto");
+		}
 	}
 
 	// -----------------------------
@@ -177,15 +247,21 @@ public class ExamService {
 	}
 
 	@Transactional
-	public void setResult(Integer professorId, Integer registrationId, Integer resultId) {
-		Registration registration = getRegistration(registrationId);
-
-		assertProfessorOwnsRegistration(professorId, registrationId);
-		assertEditable(registration);
+	public void setResult(Integer professorId, Integer registrationId, Integer resultId, Integer expectedVersion) {
+		getResult(resultId);
+
+		// Promotes "non inserito" to "inserito" in the same statement
+		int rows = registrationRepository.setResultIfEditable(
+				registrationId,
+				professorId,
+				resultId,
+				expectedVersion,
+				EDITABLE_STATUS_IDS,
+				DefaultValues.STATUS_INSERITO_ID);
 
-		promoteStatusToInsertedIfNeeded(registration);
-
-		registration.setResult(getResult(resultId));
+		if (rows == 0) {
+			explainRejectedEdit(professorId, registrationId, expectedVersion);
+		}
 	}
 
 	@Transactional
@@ -194,8 +270,25 @@ public class ExamService {
 			int registrationId = update.registrationId();
 			int resultId = update.resultId();
 
-			setResult(professorId, registrationId, resultId);
+			setResult(professorId, registrationId, resultId, update.version());
+		}
+	}
+
+	// Used by the grading sessions: returns the version each registration has after the batch
+	@Transactional
+	public Map<Integer, Integer> applyResults(Integer professorId, List<BulkResultUpdateDTO> updates) {
+		setResultBulk(professorId, updates);
+
+		List<Integer> registrationIds = updates.stream()
+				.map(BulkResultUpdateDTO::registrationId)
+				.toList();
+
+		Map<Integer, Integer> versions = new HashMap<>();
+		for (Registration registration : registrationRepository.findAllById(registrationIds)) {
+			versions.put(registration.getId(), registration.getVersion());
 		}
+
+		return versions;
 	}
 
 	@Transactional
@@ -212,26 +305,24 @@ public class ExamService {
 
 	@Transactional
 	public Integer finalizeResults(Integer professorId, Integer examId) {
-		assertProfessorOwnsExam(professorId, examId);
+		// Serializes concurrent finalizations of the same exam (e.g. a double click)
+		Exam exam = examRepository.lockOwnedExam(examId, professorId)
+				.orElseThrow(() -> new AccessDeniedException("Assicurati di essere il docente associato al corso"));
+
+		if (!registrationRepository.existsByExam_IdAndStatus_IdInAndReportIsNull(examId, TO_BE_VERBALIZED_STATUS_IDS)) {
+			return reportService.getLatestReportId(examId);
+		}
 
-		getStatus(DefaultValues.STATUS_VERBALIZZATO_ID);
-		getResult(DefaultValues.RESULT_RIMANDATO_ID);
+		Report report = reportService.createReport(exam);
 
-		int finalized = registrationRepository.finalizeAll(
+		registrationRepository.finalizeInto(
 				examId,
+				report.getId(),
 				TO_BE_VERBALIZED_STATUS_IDS,
 				DefaultValues.STATUS_VERBALIZZATO_ID,
 				DefaultValues.STATUS_RIFIUTATO_ID,
 				DefaultValues.RESULT_RIMANDATO_ID);
 
-		if (finalized == 0) {
-			throw new IllegalArgumentException("Nessun appello da verbalizzare");
-		}
-
-		Report report = reportService.createReport(getExam(examId));
-
-		registrationRepository.updateReport(examId, DefaultValues.STATUS_VERBALIZZATO_ID, report);
-
 		return report.getId();
 	}
 
@@ -264,6 +355,13 @@ public class ExamService {
 				.orElseThrow(() -> new IllegalArgumentException("Nessuna iscrizione trovata per l'utente fornito"));
 	}
 
+	private BaseRegistration getCurrentOrArchivedRegistrationByStudentId(Integer studentId, Integer examId) {
+		return registrationRepository.findByStudent_IdAndExam_Id(studentId, examId)
+				.map(BaseRegistration.class::cast)
+				.or(() -> archivedRegistrationRepository.findByStudent_IdAndExam_Id(studentId, examId))
+				.orElseThrow(() -> new IllegalArgumentException("Nessuna iscrizione trovata per l'utente fornito"));
+	}
+
 	private Status getStatus(int statusId) {
 		return statusRepository.findById(statusId)
 				.orElseThrow(() -> new IllegalStateException("Database missing status id=" + statusId));
@@ -274,6 +372,51 @@ public class ExamService {
 				.orElseThrow(() -> new IllegalArgumentException("Il voto specificato non esiste"));
 	}
 
+	private void saveNewRegistration(Student student, Exam exam) {
+		Registration registration = new Registration();
+		registration.setStudent(student);
+		registration.setExam(exam);
+		registration.setResult(getResult(DefaultValues.RESULT_VUOTO_ID));
+		registration.setStatus(getStatus(DefaultValues.STATUS_NON_INSERITO_ID));
+
+		registrationRepository.save(registration);
+	}
+
+	private ExamRegistrationDTO addToWaitlist(Student student, Exam exam) {
+		WaitlistEntry entry = new WaitlistEntry();
+		entry.setStudent(student);
+		entry.setExam(exam);
+		entry.setCreatedAt(LocalDateTime.now());
+
+		waitlistRepository.save(entry);
+
+		return ExamRegistrationDTO.waitlisted(
+				waitlistRepository.countByExam_IdAndIdLessThanEqual(exam.getId(), entry.getId()));
+	}
+
+	private void promoteFromWaitlist(Integer examId) {
+		Optional<WaitlistEntry> head;
+		while ((head = waitlistRepository.findFirstByExam_IdOrderByIdAsc(examId)).isPresent()) {
+			WaitlistEntry next = head.get();
+
+			// Stale entry, left by a double submit that also got a seat: drop it and look further
+			if (registrationRepository.countCurrentByStudentAndExam(next.getStudent().getId(), examId) > 0) {
+				waitlistRepository.delete(next);
+				waitlistRepository.flush();
+				continue;
+			}
+
+			// No seat if the capacity was lowered in the meantime
+			if (examRepository.takeSeat(examId) == 0) {
+				return;
+			}
+
+			waitlistRepository.delete(next);
+			saveNewRegistration(next.getStudent(), next.getExam());
+			return;
+		}
+	}
+
 	// -----------------------------
 	// Helpers: access control
 	// -----------------------------
@@ -297,11 +440,18 @@ public class ExamService {
 	}
 
 	private void assertStudentNotAlreadyRegisteredForExamCall(Integer studentId, Integer examId) {
-		if (registrationRepository.existsByStudent_IdAndExam_Id(studentId, examId)) {
+		if (registrationRepository.existsByStudent_IdAndExam_Id(studentId, examId)
+				|| archivedRegistrationRepository.existsByStudent_IdAndExam_Id(studentId, examId)) {
 			throw new IllegalArgumentException("Sei già iscritto a questo appello");
 		}
 	}
 
+	private void assertStudentNotOnWaitlist(Integer studentId, Integer examId) {
+		if (waitlistRepository.existsByStudent_IdAndExam_Id(studentId, examId)) {
+			throw new IllegalArgumentException("Sei già in lista d'attesa per questo appello");
+		}
+	}
+
 	// -----------------------------
 	// Helpers: domain rules
 	// -----------------------------
@@ -313,19 +463,30 @@ public class ExamService {
 		}
 	}
 
-	private void promoteStatusToInsertedIfNeeded(Registration registration) {
-		if (registration.getStatus().getId() != DefaultValues.STATUS_NON_INSERITO_ID) {
-			return;
-		}
-		registration.setStatus(getStatus(DefaultValues.STATUS_INSERITO_ID));
+	// Re-reads the row a guarded update left untouched, in the order the checks used to run
+	private void explainRejectedEdit(Integer professorId, Integer registrationId, Integer expectedVersion) {
+		Registration registration = getRegistration(registrationId);
+
+		assertProfessorOwnsRegistration(professorId, registrationId);
+		assertUnchangedSince(registration, expectedVersion);
+		assertEditable(registration);
+
+		// Every check passes now: the row changed between the update and this read
+		throw new RegistrationConflictException(new RegistrationDTO(registration));
 	}
 
-	private void assertVisibleToStudent(Registration registration) {
+	private void assertVisibleToStudent(BaseRegistration registration) {
 		if (!TO_BE_VISUALIZED_STATUS_IDS.contains(registration.getStatus().getId())) {
 			throw new IllegalArgumentException("Il voto non è ancora stato pubblicato");
 		}
 	}
 
+	private void assertUnchangedSince(Registration registration, Integer expectedVersion) {
+		if (expectedVersion != null && !expectedVersion.equals(registration.getVersion())) {
+			throw new RegistrationConflictException(new RegistrationDTO(registration));
+		}
+	}
+
 	private void assertDeclinable(Registration registration) {
 		if (!TO_BE_DECLINED_STATUS_IDS.contains(registration.getStatus().getId())) {
 			throw new IllegalArgumentException("Non puoi rifiutare questo voto");
@@ -0,0 +1,189 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.polimi.mypolihub_spa.DTO.CourseGroupDTO;
+import it.polimi.mypolihub_spa.DTO.ExamSessionReportDTO;
+import it.polimi.mypolihub_spa.DTO.GroupExamDTO;
+import it.polimi.mypolihub_spa.entity.Course;
+import it.polimi.mypolihub_spa.entity.Exam;
+import it.polimi.mypolihub_spa.repository.CourseMajorRepository;
+import it.polimi.mypolihub_spa.repository.CourseRepository;
+import it.polimi.mypolihub_spa.repository.ExamRepository;
+import it.polimi.mypolihub_spa.utils.SlotIntervalIndex;
+
+/**
+ * Schedules a whole exam session at once. Calls of courses taken by the same
+ * major and year of study must not overlap, neither with each other nor with
+ * exams already in the calendar; if any do, nothing is saved.
+ */
+@Service
+public class ExamSessionService {
+
+    private static final DateTimeFormatter DISPLAY = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseMajorRepository courseMajorRepository;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Value("${app.exams.slot-minutes:180}")
+    private long slotMinutes;
+
+    private record Call(int line, Integer courseId, LocalDateTime date) {
+    }
+
+    private record Group(Integer majorId, Integer yearOfStudy) {
+    }
+
+    private record Slot(String courseName, LocalDateTime date) {
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
+    public ExamSessionReportDTO scheduleSession(String rawCalls, boolean preview) {
+        ExamSessionReportDTO report = new ExamSessionReportDTO();
+        report.setPreview(preview);
+
+        List<Call> calls = parseCalls(rawCalls, report);
+        report.setRequested(calls.size());
+
+        if (calls.isEmpty()) {
+            report.addError("No exam call to schedule");
+            return report;
+        }
+
+        Set<Integer> courseIds = calls.stream().map(Call::courseId).collect(Collectors.toSet());
+        Map<Integer, List<CourseGroupDTO>> groupsByCourse = courseMajorRepository.findGroupsOfCourses(courseIds).stream()
+                .collect(Collectors.groupingBy(CourseGroupDTO::courseId));
+
+        Set<Integer> knownCourseIds = new HashSet<>(courseRepository.findAllById(courseIds).stream()
+                .map(Course::getId)
+                .toList());
+
+        for (Call call : calls) {
+            if (!knownCourseIds.contains(call.courseId())) {
+                report.addError("Line " + call.line() + ": course " + call.courseId() + " does not exist");
+            }
+        }
+
+        detectConflicts(calls, groupsByCourse, report);
+
+        if (report.hasProblems() || preview) {
+            return report;
+        }
+
+        List<Exam> exams = new ArrayList<>(calls.size());
+        for (Call call : calls) {
+            Exam exam = new Exam();
+            exam.setCourse(courseRepository.getReferenceById(call.courseId()));
+            exam.setDate(call.date());
+            exams.add(exam);
+        }
+
+        examRepository.saveAll(exams);
+        report.setScheduled(exams.size());
+
+        return report;
+    }
+
+    private List<Call> parseCalls(String rawCalls, ExamSessionReportDTO report) {
+        List<Call> calls = new ArrayList<>();
+        if (rawCalls == null) {
+            return calls;
+        }
+
+        String[] lines = rawCalls.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] fields = line.split(";");
+            if (fields.length != 2) {
+                report.addError("Line " + (i + 1) + ": expected 'courseId;yyyy-MM-ddTHH:mm'");
+                continue;
+            }
+
+            try {
+                Integer courseId = Integer.valueOf(fields[0].trim());
+                LocalDateTime date = LocalDateTime.parse(fields[1].trim().replace(' ', 'T'));
+
+                calls.add(new Call(i + 1, courseId, date));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                report.addError("Line " + (i + 1) + ": expected 'courseId;yyyy-MM-ddTHH:mm'");
+            }
+        }
+
+        return calls;
+    }
+
+    private void detectConflicts(List<Call> calls, Map<Integer, List<CourseGroupDTO>> groupsByCourse,
+            ExamSessionReportDTO report) {
+        Duration slot = Duration.ofMinutes(slotMinutes);
+        SlotIntervalIndex<Group, Slot> index = new SlotIntervalIndex<>(slot);
+
+        Set<Integer> majorIds = groupsByCourse.values().stream()
+                .flatMap(List::stream)
+                .map(CourseGroupDTO::majorId)
+                .collect(Collectors.toSet());
+
+        if (majorIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime from = calls.stream().map(Call::date).min(Comparator.naturalOrder()).orElseThrow().minus(slot);
+        LocalDateTime to = calls.stream().map(Call::date).max(Comparator.naturalOrder()).orElseThrow().plus(slot);
+
+        for (GroupExamDTO existing : examRepository.findGroupExamsBetween(majorIds, from, to)) {
+            index.add(new Group(existing.majorId(), existing.yearOfStudy()), existing.date(),
+                    new Slot(existing.courseName(), existing.date()));
+        }
+
+        // One message per pair of clashing slots, even if they share several groups
+        Set<String> conflicts = new LinkedHashSet<>();
+
+        for (Call call : calls) {
+            List<CourseGroupDTO> groups = groupsByCourse.getOrDefault(call.courseId(), List.of());
+
+            for (CourseGroupDTO group : groups) {
+                Group key = new Group(group.majorId(), group.yearOfStudy());
+
+                for (Slot other : index.findOverlapping(key, call.date())) {
+                    conflicts.add(group.courseName() + " (" + DISPLAY.format(call.date()) + ") overlaps "
+                            + other.courseName() + " (" + DISPLAY.format(other.date()) + ") for "
+                            + group.majorName() + ", year " + group.yearOfStudy());
+                }
+            }
+
+            for (CourseGroupDTO group : groups) {
+                index.add(new Group(group.majorId(), group.yearOfStudy()), call.date(),
+                        new Slot(group.courseName(), call.date()));
+            }
+        }
+
+        conflicts.forEach(report::addConflict);
+    }
+}
@@ -0,0 +1,231 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import it.polimi.mypolihub_spa.DTO.GradeImportReportDTO;
+import it.polimi.mypolihub_spa.entity.DefaultValues;
+import it.polimi.mypolihub_spa.entity.Result;
+import it.polimi.mypolihub_spa.repository.ExamRepository;
+import it.polimi.mypolihub_spa.repository.ResultRepository;
+
+/**
+ * Applies the grades of an exam from a spreadsheet export, one student per line:
+ * {@code studentNumber,grade} (';' works too, as in Excel exports with an Italian locale).
+ * A header line is skipped. Lines are checked as they are read and the valid ones are
+ * written in one batched update; every rejected line ends up in the report.
+ */
+@Service
+public class GradeImportService {
+
+    private static final int FIELDS = 2;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private ResultRepository resultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record RosterEntry(int registrationId, int statusId, int version) {
+    }
+
+    @Transactional
+    public GradeImportReportDTO importGrades(Integer professorId, Integer examId, MultipartFile file) {
+        if (!examRepository.existsByIdAndCourse_Professor_Id(examId, professorId)) {
+            throw new AccessDeniedException("Assicurati di essere il docente associato al corso");
+        }
+
+        // The whole roster and the grade labels, in one query each
+        Map<Integer, RosterEntry> roster = loadRoster(examId);
+        Map<String, Integer> resultIdsByLabel = loadResultLabels();
+
+        List<String> errors = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Integer> updateLines = new ArrayList<>();
+        Set<Integer> seenNumbers = new HashSet<>();
+
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = br.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+
+                // Excel prepends a byte order mark to UTF-8 exports
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+                    line = line.substring(1);
+                }
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                String[] fields = split(line);
+
+                // Header line
+                if (lineNumber == 1 && fields.length == FIELDS && !isNumber(fields[0])) {
+                    continue;
+                }
+
+                try {
+                    RosterEntry entry = parseLine(fields, roster, resultIdsByLabel, seenNumbers);
+
+                    updates.add(new Object[] {
+                            resultIdsByLabel.get(normalizeLabel(fields[1])),
+                            DefaultValues.STATUS_INSERITO_ID,
+                            entry.registrationId(),
+                            DefaultValues.STATUS_NON_INSERITO_ID,
+                            DefaultValues.STATUS_INSERITO_ID,
+                            entry.version() });
+                    updateLines.add(lineNumber);
+                } catch (IllegalArgumentException e) {
+                    errors.add("Riga " + lineNumber + " ('" + line + "'): " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Upload file error", e);
+        }
+
+        int updated = applyUpdates(updates, updateLines, errors);
+
+        return new GradeImportReportDTO(updated, errors.size(), errors);
+    }
+
+    // -----------------------------
+    // Helpers: lookups
+    // -----------------------------
+
+    private Map<Integer, RosterEntry> loadRoster(Integer examId) {
+        Map<Integer, RosterEntry> roster = new HashMap<>();
+
+        jdbcTemplate.query("""
+                SELECT s.number, r.id, r.status_id, r.version
+                FROM registrations r
+                JOIN students s ON s.id = r.student_id
+                WHERE r.exam_id = ?
+                """, rs -> {
+            roster.put(rs.getInt(1), new RosterEntry(rs.getInt(2), rs.getInt(3), rs.getInt(4)));
+        }, examId);
+
+        return roster;
+    }
+
+    private Map<String, Integer> loadResultLabels() {
+        Map<String, Integer> labels = new HashMap<>();
+
+        for (Result result : resultRepository.findAll()) {
+            if (result.getId() != DefaultValues.RESULT_VUOTO_ID) {
+                labels.put(normalizeLabel(result.getValue()), result.getId());
+            }
+        }
+
+        return labels;
+    }
+
+    // -----------------------------
+    // Helpers: parsing / validation
+    // -----------------------------
+
+    private RosterEntry parseLine(String[] fields, Map<Integer, RosterEntry> roster,
+            Map<String, Integer> resultIdsByLabel, Set<Integer> seenNumbers) {
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("attesi " + FIELDS + " campi: matricola e voto");
+        }
+
+        if (!isNumber(fields[0])) {
+            throw new IllegalArgumentException("matricola non valida: " + fields[0]);
+        }
+        int number = Integer.parseInt(fields[0]);
+
+        RosterEntry entry = roster.get(number);
+        if (entry == null) {
+            throw new IllegalArgumentException("lo studente " + number + " non è iscritto all'appello");
+        }
+
+        if (!resultIdsByLabel.containsKey(normalizeLabel(fields[1]))) {
+            throw new IllegalArgumentException("voto non riconosciuto: " + fields[1]);
+        }
+
+        if (entry.statusId() != DefaultValues.STATUS_NON_INSERITO_ID
+                && entry.statusId() != DefaultValues.STATUS_INSERITO_ID) {
+            throw new IllegalArgumentException("il voto dello studente " + number + " non è più modificabile");
+        }
+
+        if (!seenNumbers.add(number)) {
+            throw new IllegalArgumentException("studente " + number + " presente più volte nel file");
+        }
+
+        return entry;
+    }
+
+    private String[] split(String line) {
+        String separator = line.indexOf(';') >= 0 ? ";" : ",";
+        String[] fields = line.split(separator, -1);
+
+        for (int i = 0; i < fields.length; i++) {
+            String field = fields[i].trim();
+            if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+                field = field.substring(1, field.length() - 1).replace("\"\"", "\"").trim();
+            }
+            fields[i] = field;
+        }
+
+        return fields;
+    }
+
+    private boolean isNumber(String field) {
+        return !field.isEmpty() && field.chars().allMatch(Character::isDigit) && field.length() <= 9;
+    }
+
+    private String normalizeLabel(String label) {
+        return label.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // -----------------------------
+    // Helpers: writing
+    // -----------------------------
+
+    // Same guards as the single edit: a row graded or published since the roster was read is left alone
+    private int applyUpdates(List<Object[]> updates, List<Integer> updateLines, List<String> errors) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate("""
+                UPDATE registrations
+                SET result_id = ?, status_id = ?, version = version + 1
+                WHERE id = ? AND status_id IN (?, ?) AND version = ?
+                """, updates);
+
+        int updated = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                updated++;
+            } else {
+                errors.add("Riga " + updateLines.get(i) + ": il voto è stato modificato da un altro utente");
+            }
+        }
+
+        return updated;
+    }
+}
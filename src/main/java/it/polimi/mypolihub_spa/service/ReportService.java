@@ -2,6 +2,7 @@ package it.polimi.mypolihub_spa.service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
@@ -10,9 +11,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import it.polimi.mypolihub_spa.DTO.ReportDTO;
+import it.polimi.mypolihub_spa.entity.ArchivedRegistration;
+import it.polimi.mypolihub_spa.entity.ArchivedReport;
 import it.polimi.mypolihub_spa.entity.Exam;
 import it.polimi.mypolihub_spa.entity.Registration;
 import it.polimi.mypolihub_spa.entity.Report;
+import it.polimi.mypolihub_spa.repository.ArchivedRegistrationRepository;
+import it.polimi.mypolihub_spa.repository.ArchivedReportRepository;
 import it.polimi.mypolihub_spa.repository.RegistrationRepository;
 import it.polimi.mypolihub_spa.repository.ReportRepository;
 import it.polimi.mypolihub_spa.utils.SortUtility;
@@ -26,6 +31,12 @@ public class ReportService {
     @Autowired
     private RegistrationRepository registrationRepository;
 
+    @Autowired
+    private ArchivedReportRepository archivedReportRepository;
+
+    @Autowired
+    private ArchivedRegistrationRepository archivedRegistrationRepository;
+
     // -----------------------------
     // Report creation
     // -----------------------------
@@ -43,6 +54,13 @@ public class ReportService {
         return report;
     }
 
+    @Transactional(readOnly = true)
+    public Integer getLatestReportId(Integer examId) {
+        return reportRepository.findFirstByExam_IdOrderByTimestampDescIdDesc(examId)
+                .map(Report::getId)
+                .orElseThrow(() -> new IllegalArgumentException("Nessun appello da verbalizzare"));
+    }
+
     // -----------------------------
     // Report visualization (single)
     // -----------------------------
@@ -54,12 +72,19 @@ public class ReportService {
             String sortBy,
             String sortDir) {
 
-        assertProfessorOwnsReport(professorId, reportId);
-
         Sort sort = SortUtility.toSort(sortBy, sortDir);
 
-        Report report = getReport(reportId);
-        List<Registration> registrations = registrationRepository.findByReport_Id(reportId, sort);
+        if (reportRepository.existsByIdAndExam_Course_Professor_Id(reportId, professorId)) {
+            Report report = getReport(reportId);
+            List<Registration> registrations = registrationRepository.findByReport_Id(reportId, sort);
+
+            return new ReportDTO(report, registrations);
+        }
+
+        assertProfessorOwnsArchivedReport(professorId, reportId);
+
+        ArchivedReport report = getArchivedReport(reportId);
+        List<ArchivedRegistration> registrations = archivedRegistrationRepository.findByReport_Id(reportId, sort);
 
         return new ReportDTO(report, registrations);
     }
@@ -70,11 +95,18 @@ public class ReportService {
 
     @Transactional(readOnly = true)
     public List<ReportDTO> getReportsForCourse(Integer professorId, Integer courseId) {
-        return reportRepository
+        // Archived reports always belong to older exams, so they come first
+        Stream<ReportDTO> archived = archivedReportRepository
+                .findAllByExam_Course_IdAndExam_Course_Professor_IdOrderByExam_DateAsc(courseId, professorId)
+                .stream()
+                .map(r -> new ReportDTO(r, List.of()));
+
+        Stream<ReportDTO> current = reportRepository
                 .findAllByExam_Course_IdAndExam_Course_Professor_IdOrderByExam_DateAsc(courseId, professorId)
                 .stream()
-                .map(r -> new ReportDTO(r, List.of()))
-                .toList();
+                .map(r -> new ReportDTO(r, List.of()));
+
+        return Stream.concat(archived, current).toList();
     }
 
     // -----------------------------
@@ -87,8 +119,8 @@ public class ReportService {
         }
     }
 
-    private void assertProfessorOwnsReport(Integer professorId, Integer reportId) {
-        boolean allowed = reportRepository.existsByIdAndExam_Course_Professor_Id(reportId, professorId);
+    private void assertProfessorOwnsArchivedReport(Integer professorId, Integer reportId) {
+        boolean allowed = archivedReportRepository.existsByIdAndExam_Course_Professor_Id(reportId, professorId);
         if (!allowed) {
             throw new AccessDeniedException("Assicurati di essere il docente associato al corso.");
         }
@@ -102,4 +134,9 @@ public class ReportService {
         return reportRepository.findById(reportId)
                 .orElseThrow(() -> new IllegalArgumentException("Il verbale fornito non esiste"));
     }
+
+    private ArchivedReport getArchivedReport(Integer reportId) {
+        return archivedReportRepository.findById(reportId)
+                .orElseThrow(() -> new IllegalArgumentException("Il verbale fornito non esiste"));
+    }
 }
@@ -0,0 +1,214 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import it.polimi.mypolihub_spa.DTO.ExamDTO;
+import it.polimi.mypolihub_spa.DTO.RegistrationRowDTO;
+import it.polimi.mypolihub_spa.entity.BaseReport;
+import it.polimi.mypolihub_spa.entity.Exam;
+import it.polimi.mypolihub_spa.repository.ArchivedRegistrationRepository;
+import it.polimi.mypolihub_spa.repository.ArchivedReportRepository;
+import it.polimi.mypolihub_spa.repository.ExamRepository;
+import it.polimi.mypolihub_spa.repository.RegistrationRepository;
+import it.polimi.mypolihub_spa.repository.ReportRepository;
+import it.polimi.mypolihub_spa.utils.SortUtility;
+
+/**
+ * Writes rosters and reports straight from a database cursor: the header object first,
+ * then the registrations one row at a time, so memory stays flat whatever the size of
+ * the exam and the first bytes leave before the query is over.
+ * <p>
+ * Access checks run on the request thread (so they still map to 403); the body is written
+ * later on an async thread, inside its own read-only transaction.
+ */
+@Service
+public class RosterStreamService {
+
+    private static final int FLUSH_EVERY_ROWS = 200;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private ReportRepository reportRepository;
+
+    @Autowired
+    private ArchivedReportRepository archivedReportRepository;
+
+    @Autowired
+    private ArchivedRegistrationRepository archivedRegistrationRepository;
+
+    // -----------------------------
+    // Roster of an exam
+    // -----------------------------
+
+    public StreamingResponseBody streamExamRoster(Integer professorId, Integer examId, String sortBy, String sortDir) {
+        if (!examRepository.existsByIdAndCourse_Professor_Id(examId, professorId)) {
+            throw new AccessDeniedException("Assicurati di essere il docente associato al corso");
+        }
+
+        Sort sort = SortUtility.toSort(sortBy, sortDir);
+
+        return out -> inReadOnlyTransaction(() -> {
+            Exam exam = examRepository.findById(examId)
+                    .orElseThrow(() -> new IllegalArgumentException("L'esame specificato non esiste"));
+
+            try (JsonGenerator generator = open(out)) {
+                generator.writeStartObject();
+                generator.writePOJOProperty("exam", new ExamDTO(exam));
+                generator.flush();
+
+                writeRows(generator, () -> registrationRepository.streamRowsByExam(examId, sort));
+                generator.writeEndObject();
+            }
+        });
+    }
+
+    // -----------------------------
+    // Report (current or archived)
+    // -----------------------------
+
+    public StreamingResponseBody streamReport(Integer professorId, Integer reportId, String sortBy, String sortDir) {
+        Sort sort = SortUtility.toSort(sortBy, sortDir);
+
+        if (reportRepository.existsByIdAndExam_Course_Professor_Id(reportId, professorId)) {
+            return out -> writeReport(out, () -> reportRepository.findById(reportId),
+                    () -> registrationRepository.streamRowsByReport(reportId, sort));
+        }
+
+        if (!archivedReportRepository.existsByIdAndExam_Course_Professor_Id(reportId, professorId)) {
+            throw new AccessDeniedException("Assicurati di essere il docente associato al corso.");
+        }
+
+        return out -> writeReport(out, () -> archivedReportRepository.findById(reportId),
+                () -> archivedRegistrationRepository.streamRowsByReport(reportId, sort));
+    }
+
+    private void writeReport(OutputStream out, Supplier<Optional<? extends BaseReport>> reportLookup,
+            Supplier<Stream<RegistrationRowDTO>> rows) {
+        inReadOnlyTransaction(() -> {
+            BaseReport report = reportLookup.get()
+                    .orElseThrow(() -> new IllegalArgumentException("Il verbale fornito non esiste"));
+
+            try (JsonGenerator generator = open(out)) {
+                generator.writeStartObject();
+                generator.writePOJOProperty("id", report.getId());
+                generator.writePOJOProperty("exam", new ExamDTO(report.getExam()));
+                generator.writePOJOProperty("timestamp", report.getTimestamp());
+                generator.flush();
+
+                writeRows(generator, rows);
+                generator.writeEndObject();
+            }
+        });
+    }
+
+    // -----------------------------
+    // Helpers: JSON writing
+    // -----------------------------
+
+    private JsonGenerator open(OutputStream out) {
+        // The container owns the response stream
+        return jsonMapper.createGenerator(StreamUtils.nonClosing(out));
+    }
+
+    // The header must be fully written (and its lazy associations loaded) before the cursor is
+    // opened: a streaming result set keeps the connection busy until it is closed
+    private void writeRows(JsonGenerator generator, Supplier<Stream<RegistrationRowDTO>> rows) {
+        generator.writeName("registrations");
+        generator.writeStartArray();
+
+        try (Stream<RegistrationRowDTO> stream = rows.get()) {
+            int written = 0;
+            for (RegistrationRowDTO row : (Iterable<RegistrationRowDTO>) stream::iterator) {
+                writeRow(generator, row);
+
+                if (++written % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        generator.writeEndArray();
+    }
+
+    // Same shape as RegistrationDTO, without the exam
+    private void writeRow(JsonGenerator generator, RegistrationRowDTO row) {
+        generator.writeStartObject();
+        writeInteger(generator, "id", row.id());
+        writeInteger(generator, "version", row.version());
+
+        generator.writeName("student");
+        generator.writeStartObject();
+        generator.writeStringProperty("name", row.studentName());
+        generator.writeStringProperty("surname", row.studentSurname());
+        generator.writeStringProperty("email", row.studentEmail());
+        writeInteger(generator, "number", row.studentNumber());
+
+        generator.writeName("major");
+        generator.writeStartObject();
+        writeInteger(generator, "id", row.majorId());
+        generator.writeStringProperty("name", row.majorName());
+        generator.writeName("degreeLevel");
+        generator.writeStartObject();
+        generator.writeStringProperty("name", row.degreeLevelName());
+        writeInteger(generator, "yearsOfStudy", row.degreeLevelYearsOfStudy());
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeEndObject();
+
+        generator.writeStringProperty("status", row.status());
+
+        generator.writeName("result");
+        generator.writeStartObject();
+        writeInteger(generator, "id", row.resultId());
+        generator.writeStringProperty("value", row.result());
+        generator.writeEndObject();
+
+        generator.writeEndObject();
+    }
+
+    private void writeInteger(JsonGenerator generator, String name, Integer value) {
+        generator.writeName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    // -----------------------------
+    // Helpers: transactions
+    // -----------------------------
+
+    private void inReadOnlyTransaction(Runnable work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        template.executeWithoutResult(status -> work.run());
+    }
+}
@@ -0,0 +1,127 @@
+package it.polimi.mypolihub_spa.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import it.polimi.mypolihub_spa.DTO.RoomDTO;
+import it.polimi.mypolihub_spa.DTO.SeatRowDTO;
+import it.polimi.mypolihub_spa.DTO.SeatingRequestDTO;
+import it.polimi.mypolihub_spa.DTO.SeatingRoomDTO;
+import it.polimi.mypolihub_spa.entity.Registration;
+import it.polimi.mypolihub_spa.repository.ExamRepository;
+import it.polimi.mypolihub_spa.repository.RegistrationRepository;
+import it.polimi.mypolihub_spa.repository.SeatAssignmentRepository;
+import it.polimi.mypolihub_spa.utils.SeatingAllocator;
+import it.polimi.mypolihub_spa.utils.SeatingAllocator.Assignment;
+import it.polimi.mypolihub_spa.utils.SeatingAllocator.Room;
+
+/**
+ * Seating plans of exam calls. A new plan replaces the previous one as a whole: the
+ * allocation runs in memory and the rows are written with a single batch.
+ */
+@Service
+public class SeatingService {
+
+    private static final int MAX_ROOM_NAME_LENGTH = 50;
+    private static final Sort BY_NAME = Sort.by("student.user.surname", "student.user.name", "student.number");
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private RegistrationRepository registrationRepository;
+
+    @Autowired
+    private SeatAssignmentRepository seatAssignmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public List<SeatingRoomDTO> allocateSeats(Integer professorId, Integer examId, SeatingRequestDTO request) {
+        // The lock keeps two plans of the same exam from interleaving their writes
+        if (examRepository.lockOwnedExam(examId, professorId).isEmpty()) {
+            throw new AccessDeniedException("Assicurati di essere il docente associato al corso");
+        }
+
+        List<Room> rooms = request.rooms() == null ? List.of() : request.rooms().stream().map(this::toRoom).toList();
+        List<Registration> registrations = registrationRepository.findByExam_Id(examId, BY_NAME);
+
+        List<Assignment<Registration>> assignments = SeatingAllocator.allocate(registrations, rooms,
+                request.separateMajors() ? r -> r.getStudent().getMajor().getId() : null);
+
+        seatAssignmentRepository.deleteByExam(examId);
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO seat_assignments (exam_id, registration_id, room, seat)
+                VALUES (?, ?, ?, ?)
+                """, assignments.stream()
+                .map(a -> new Object[] { examId, a.person().getId(), a.room().name(), a.seat() })
+                .toList());
+
+        return seatAssignmentRepository.findRoomsByExam(examId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SeatingRoomDTO> getRooms(Integer professorId, Integer examId) {
+        assertOwnership(professorId, examId);
+        return seatAssignmentRepository.findRoomsByExam(examId);
+    }
+
+    // Room null: the whole plan
+    @Transactional(readOnly = true)
+    public List<SeatRowDTO> getSeats(Integer professorId, Integer examId, String room) {
+        assertOwnership(professorId, examId);
+        return seatAssignmentRepository.findRowsByExam(examId, room);
+    }
+
+    // Semicolon-separated with a BOM, so Excel with an Italian locale opens it as is
+    @Transactional(readOnly = true)
+    public String exportCsv(Integer professorId, Integer examId, String room) {
+        StringBuilder csv = new StringBuilder("\uFEFFAula;Posto;Matricola;Cognome;Nome;Corso di studi\r\n");
+        for (SeatRowDTO row : getSeats(professorId, examId, room)) {
+            csv.append(csvField(row.room())).append(';')
+                    .append(row.seat()).append(';')
+                    .append(row.number()).append(';')
+                    .append(csvField(row.surname())).append(';')
+                    .append(csvField(row.name())).append(';')
+                    .append(csvField(row.major())).append("\r\n");
+        }
+        return csv.toString();
+    }
+
+    // -----------------------------
+
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // A leading =, +, -, @ (or tab/CR) would make Excel evaluate the cell as a formula
+        if ("=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private Room toRoom(RoomDTO room) {
+        String name = room.name() == null ? null : room.name().strip();
+        if (name != null && name.length() > MAX_ROOM_NAME_LENGTH) {
+            throw new IllegalArgumentException("Nome aula troppo lungo: " + name);
+        }
+        return new Room(name, room.seats(), room.spacing());
+    }
+
+    private void assertOwnership(Integer professorId, Integer examId) {
+        if (!examRepository.existsByIdAndCourse_Professor_Id(examId, professorId)) {
+            throw new AccessDeniedException("Assicurati di essere il docente associato al corso");
+        }
+    }
+}
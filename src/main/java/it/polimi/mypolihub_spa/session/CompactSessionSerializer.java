@@ -0,0 +1,70 @@
+package it.polimi.mypolihub_spa.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+
+/**
+ * Java serialization of session attributes, deflated when that makes them smaller.
+ * The first byte tells the reader which encoding was used.
+ */
+public class CompactSessionSerializer {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    private final ClassLoader classLoader;
+
+    public CompactSessionSerializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public byte[] serialize(Object attribute) {
+        byte[] plain = writeObject(attribute, false);
+        if (plain.length - 1 < COMPRESSION_THRESHOLD) {
+            return plain;
+        }
+
+        byte[] deflated = writeObject(attribute, true);
+        return deflated.length < plain.length ? deflated : plain;
+    }
+
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        try (InputStream body = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+                InputStream in = bytes[0] == DEFLATED ? new InflaterInputStream(body) : body;
+                ObjectInputStream objects = new ConfigurableObjectInputStream(in, classLoader)) {
+            return objects.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot read session attribute", e);
+        }
+    }
+
+    private byte[] writeObject(Object attribute, boolean deflate) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(deflate ? DEFLATED : PLAIN);
+
+        try (OutputStream out = deflate ? new DeflaterOutputStream(bytes) : bytes;
+                ObjectOutputStream objects = new ObjectOutputStream(out)) {
+            objects.writeObject(attribute);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write session attribute", e);
+        }
+
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,152 @@
+package it.polimi.mypolihub_spa.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Seats people in exam rooms. Each room leaves {@code spacing} empty seats between two
+ * occupied ones; people are split across rooms in proportion to their usable seats
+ * (largest remainder), so no room is packed while another stays half empty.
+ * <p>
+ * When a group function is given, the seating order interleaves the groups (largest group
+ * first, never the same group twice in a row), so neighbours only share a group once a
+ * single group outnumbers all the others together. O(n log g) for n people and g groups.
+ */
+public final class SeatingAllocator {
+
+    public record Room(String name, int seats, int spacing) {
+
+        public int usableSeats() {
+            return (seats + spacing) / (spacing + 1);
+        }
+
+        // Physical number (1-based) of the index-th usable seat
+        int seatNumber(int index) {
+            return index * (spacing + 1) + 1;
+        }
+    }
+
+    public record Assignment<T>(T person, Room room, int seat) {
+    }
+
+    private record Group<T>(int order, ArrayDeque<T> members) {
+    }
+
+    private SeatingAllocator() {
+    }
+
+    /**
+     * @param people  in the order to keep among equals (e.g. by surname)
+     * @param groupOf group of each person, or null to keep the given order
+     */
+    public static <T> List<Assignment<T>> allocate(List<T> people, List<Room> rooms, Function<T, ?> groupOf) {
+        validate(rooms);
+
+        int[] quotas = quotas(people.size(), rooms);
+        List<T> order = groupOf == null ? people : interleave(people, groupOf);
+
+        List<Assignment<T>> assignments = new ArrayList<>(people.size());
+        int next = 0;
+        for (int r = 0; r < rooms.size(); r++) {
+            Room room = rooms.get(r);
+            for (int i = 0; i < quotas[r]; i++) {
+                assignments.add(new Assignment<>(order.get(next++), room, room.seatNumber(i)));
+            }
+        }
+
+        return assignments;
+    }
+
+    // -----------------------------------------------------------------------------------------
+
+    private static void validate(List<Room> rooms) {
+        if (rooms == null || rooms.isEmpty()) {
+            throw new IllegalArgumentException("Specificare almeno un'aula");
+        }
+
+        Set<String> names = new HashSet<>();
+        for (Room room : rooms) {
+            if (room.name() == null || room.name().isBlank()) {
+                throw new IllegalArgumentException("Ogni aula deve avere un nome");
+            }
+            if (room.seats() < 1 || room.spacing() < 0) {
+                throw new IllegalArgumentException("Posti o distanziamento non validi per l'aula " + room.name());
+            }
+            if (!names.add(room.name())) {
+                throw new IllegalArgumentException("Aula ripetuta: " + room.name());
+            }
+        }
+    }
+
+    private static int[] quotas(int people, List<Room> rooms) {
+        long usable = rooms.stream().mapToLong(Room::usableSeats).sum();
+        if (people > usable) {
+            throw new IllegalArgumentException(
+                    "Posti insufficienti: " + people + " iscritti per " + usable + " posti utilizzabili");
+        }
+
+        int[] quotas = new int[rooms.size()];
+        long[] remainders = new long[rooms.size()];
+        int left = people;
+        for (int r = 0; r < rooms.size(); r++) {
+            long share = (long) people * rooms.get(r).usableSeats();
+            quotas[r] = (int) (share / usable);
+            remainders[r] = share % usable;
+            left -= quotas[r];
+        }
+
+        // The remainders add up to exactly `left` rooms' worth, and a room with a remainder
+        // is below its usable seats, so one extra person each never overflows a room
+        List<Integer> byRemainder = new ArrayList<>();
+        for (int r = 0; r < rooms.size(); r++) {
+            byRemainder.add(r);
+        }
+        byRemainder.sort(Comparator.comparingLong((Integer r) -> remainders[r]).reversed());
+        for (int i = 0; i < left; i++) {
+            quotas[byRemainder.get(i)]++;
+        }
+
+        return quotas;
+    }
+
+    private static <T> List<T> interleave(List<T> people, Function<T, ?> groupOf) {
+        Map<Object, ArrayDeque<T>> byGroup = new LinkedHashMap<>();
+        for (T person : people) {
+            byGroup.computeIfAbsent(groupOf.apply(person), g -> new ArrayDeque<>()).add(person);
+        }
+
+        PriorityQueue<Group<T>> queue = new PriorityQueue<>(
+                Comparator.comparingInt((Group<T> g) -> g.members().size()).reversed()
+                        .thenComparingInt(Group::order));
+        int order = 0;
+        for (ArrayDeque<T> members : byGroup.values()) {
+            queue.add(new Group<>(order++, members));
+        }
+
+        // The group just used sits out one turn
+        List<T> interleaved = new ArrayList<>(people.size());
+        Group<T> resting = null;
+        while (!queue.isEmpty()) {
+            Group<T> group = queue.poll();
+            interleaved.add(group.members().poll());
+
+            if (resting != null && !resting.members().isEmpty()) {
+                queue.add(resting);
+            }
+            resting = group;
+        }
+        if (resting != null) {
+            interleaved.addAll(resting.members());
+        }
+
+        return interleaved;
+    }
+}
@@ -0,0 +1,44 @@
+package it.polimi.mypolihub_spa.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fixed-length time slots indexed by start, per group. Two slots of length L overlap
+ * iff their starts are less than L apart, so a lookup is a single range scan of the
+ * group's sorted starts instead of a comparison against every slot.
+ */
+public class SlotIntervalIndex<K, T> {
+
+    private final Duration slotLength;
+    private final Map<K, TreeMap<LocalDateTime, List<T>>> startsByGroup = new HashMap<>();
+
+    public SlotIntervalIndex(Duration slotLength) {
+        this.slotLength = slotLength;
+    }
+
+    public void add(K group, LocalDateTime start, T item) {
+        startsByGroup.computeIfAbsent(group, g -> new TreeMap<>())
+                .computeIfAbsent(start, s -> new ArrayList<>())
+                .add(item);
+    }
+
+    public List<T> findOverlapping(K group, LocalDateTime start) {
+        TreeMap<LocalDateTime, List<T>> starts = startsByGroup.get(group);
+        if (starts == null) {
+            return List.of();
+        }
+
+        List<T> overlapping = new ArrayList<>();
+        starts.subMap(start.minus(slotLength), false, start.plus(slotLength), false)
+                .values()
+                .forEach(overlapping::addAll);
+
+        return overlapping;
+    }
+}
@@ -0,0 +1,5 @@
+-- SHA-256 of the request a key was first used with: the same key with another payload is refused.
+-- Rows stored before this column existed keep it NULL and are replayed without the check
+
+ALTER TABLE idempotency_keys
+    ADD COLUMN request_hash CHAR(64) NULL AFTER idempotency_key;
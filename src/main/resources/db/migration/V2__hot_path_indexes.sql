@@ -0,0 +1,62 @@
+-- The UNIQUE constraints below fail on existing duplicates with a bare "Duplicate entry" error,
+-- after the statements before them have already been applied (MySQL DDL is not transactional).
+-- Check first and stop with the offending keys; once the data is fixed, run flyway repair (to clear
+-- the failed entry) and start the application again.
+-- Nothing is deleted here: which registration or account to keep is a decision for a person.
+DROP PROCEDURE IF EXISTS v2_check_duplicates;
+
+DELIMITER //
+CREATE PROCEDURE v2_check_duplicates()
+BEGIN
+    DECLARE duplicates TEXT;
+
+    SELECT GROUP_CONCAT(CONCAT('student ', student_id, ' / exam ', exam_id) SEPARATOR ', ')
+    INTO duplicates
+    FROM (
+        SELECT student_id, exam_id
+        FROM registrations
+        GROUP BY student_id, exam_id
+        HAVING COUNT(*) > 1
+        LIMIT 20
+    ) d;
+
+    IF duplicates IS NOT NULL THEN
+        SET duplicates = LEFT(CONCAT('V2: duplicate registrations, keep one per student and exam: ', duplicates), 128);
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = duplicates;
+    END IF;
+
+    SELECT GROUP_CONCAT(email SEPARATOR ', ')
+    INTO duplicates
+    FROM (
+        SELECT email
+        FROM users
+        GROUP BY email
+        HAVING COUNT(*) > 1
+        LIMIT 20
+    ) d;
+
+    IF duplicates IS NOT NULL THEN
+        SET duplicates = LEFT(CONCAT('V2: duplicate user emails, make them unique: ', duplicates), 128);
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = duplicates;
+    END IF;
+END //
+DELIMITER ;
+
+CALL v2_check_duplicates();
+DROP PROCEDURE v2_check_duplicates;
+
+-- publishAllInserted / finalizeAll / updateReport filter on exam, status and report
+CREATE INDEX idx_registrations_exam_status_report
+    ON registrations (exam_id, status_id, report_id);
+
+-- one registration per student and exam call; also serves findByStudent_IdAndExam_Id
+ALTER TABLE registrations
+    ADD CONSTRAINT uq_registrations_student_exam UNIQUE (student_id, exam_id);
+
+-- courses of a student (findByStudents_Id..., existsByIdAndCourse_Students_Id)
+CREATE INDEX idx_courses_students_student
+    ON courses_students (student_id);
+
+-- login lookup and unique email generation
+ALTER TABLE users
+    ADD CONSTRAINT uq_users_email UNIQUE (email);
@@ -0,0 +1,22 @@
+-- Append-only archive of verbalized registrations and their reports.
+-- Rows keep their original ids, so archived reports stay reachable by id.
+
+CREATE TABLE reports_archive (
+    id INT NOT NULL,
+    exam_id INT NOT NULL,
+    timestamp DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_reports_archive_exam (exam_id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
+
+CREATE TABLE registrations_archive (
+    id INT NOT NULL,
+    student_id INT NOT NULL,
+    exam_id INT NOT NULL,
+    status_id INT NOT NULL,
+    result_id INT NOT NULL,
+    report_id INT NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_registrations_archive_student_exam (student_id, exam_id),
+    INDEX idx_registrations_archive_report (report_id)
+) ENGINE = InnoDB ROW_FORMAT = COMPRESSED;
@@ -0,0 +1,3 @@
+-- Optimistic concurrency for parallel grading
+ALTER TABLE registrations
+    ADD COLUMN version INT NOT NULL DEFAULT 0;
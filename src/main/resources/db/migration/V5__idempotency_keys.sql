@@ -0,0 +1,11 @@
+-- Responses of recent mutating API calls, replayed when a client retries with the same Idempotency-Key
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    status INT NOT NULL,
+    content_type VARCHAR(255),
+    body MEDIUMBLOB,
+    created_at DATETIME(3) NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX idx_idempotency_keys_created_at (created_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,9 @@
+-- prefix search of the admin pickers (name LIKE 'abc%')
+CREATE INDEX idx_courses_name
+    ON courses (name);
+
+CREATE INDEX idx_users_surname_name
+    ON users (surname, name);
+
+CREATE INDEX idx_users_name
+    ON users (name);
@@ -0,0 +1,22 @@
+-- Optional seat limit per exam call. seats_taken is only moved by conditional updates
+-- (take a seat unless full), so it stays exact across nodes.
+ALTER TABLE exams
+    ADD COLUMN capacity INT NULL,
+    ADD COLUMN seats_taken INT NOT NULL DEFAULT 0;
+
+UPDATE exams e
+SET e.seats_taken = (SELECT COUNT(*) FROM registrations r WHERE r.exam_id = e.id);
+
+-- Students beyond capacity, in order of arrival (id)
+CREATE TABLE exam_waitlist (
+    id INT NOT NULL AUTO_INCREMENT,
+    exam_id INT NOT NULL,
+    student_id INT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uq_exam_waitlist_exam_student UNIQUE (exam_id, student_id),
+    INDEX idx_exam_waitlist_exam (exam_id),
+    INDEX idx_exam_waitlist_student (student_id),
+    CONSTRAINT fk_exam_waitlist_exam FOREIGN KEY (exam_id) REFERENCES exams (id),
+    CONSTRAINT fk_exam_waitlist_student FOREIGN KEY (student_id) REFERENCES students (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,15 @@
+-- Room and seat of each registration of an exam, computed by SeatingService. Rows follow
+-- their registration: withdrawing or archiving it frees the seat.
+CREATE TABLE seat_assignments (
+    id INT NOT NULL AUTO_INCREMENT,
+    exam_id INT NOT NULL,
+    registration_id INT NOT NULL,
+    room VARCHAR(50) NOT NULL,
+    seat INT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uq_seat_assignments_registration UNIQUE (registration_id),
+    CONSTRAINT uq_seat_assignments_exam_room_seat UNIQUE (exam_id, room, seat),
+    CONSTRAINT fk_seat_assignments_exam FOREIGN KEY (exam_id) REFERENCES exams (id) ON DELETE CASCADE,
+    CONSTRAINT fk_seat_assignments_registration FOREIGN KEY (registration_id) REFERENCES registrations (id)
+        ON DELETE CASCADE
+) ENGINE = InnoDB;
@@ -10,28 +10,53 @@ export async function initCsrf() {
     return csrf;
 }
 
+const RETRY_DELAYS_MS = [500, 1500];
+
+function newIdempotencyKey() {
+    if (crypto.randomUUID) return crypto.randomUUID();
+    return `${Date.now()}-${Math.random().toString(36).slice(2)}`;
+}
+
+// Network failures are retried with the same Idempotency-Key, so the server
+// replays its first answer instead of redoing the work.
+async function fetchWithRetry(url, init, retry) {
+    for (let attempt = 0; ; attempt++) {
+        try {
+            return await fetch(url, init);
+        } catch (err) {
+            if (!retry || attempt >= RETRY_DELAYS_MS.length) throw err;
+            await new Promise((resolve) => setTimeout(resolve, RETRY_DELAYS_MS[attempt]));
+        }
+    }
+}
+
 export async function apiFetch(url, options = {}) {
-    const method = (options.method || "GET").toUpperCase();
+    const { idempotent = false, ...fetchOptions } = options;
+    const method = (fetchOptions.method || "GET").toUpperCase();
 
-    const headers = new Headers(options.headers || {});
+    const headers = new Headers(fetchOptions.headers || {});
     headers.set("Accept", "application/json");
 
+    if (idempotent) {
+        headers.set("Idempotency-Key", newIdempotencyKey());
+    }
+
     // CSRF
     if (["POST", "PUT", "PATCH", "DELETE"].includes(method)) {
         const { headerName, token } = await initCsrf();
         headers.set(headerName, token);
 
-        if (!headers.has("Content-Type") && options.body && !(options.body instanceof FormData)) {
+        if (!headers.has("Content-Type") && fetchOptions.body && !(fetchOptions.body instanceof FormData)) {
             headers.set("Content-Type", "application/json");
         }
     }
 
-    const res = await fetch(url, {
-        ...options,
+    const res = await fetchWithRetry(url, {
+        ...fetchOptions,
         method,
         headers,
         credentials: "same-origin",
-    });
+    }, idempotent);
 
     const contentType = res.headers.get("content-type") || "";
     const payload = contentType.includes("application/json")
@@ -46,7 +71,10 @@ export async function apiFetch(url, options = {}) {
     }
 
     if (!res.ok) {
-        throw new Error(messageFrom(payload));
+        const err = new Error(messageFrom(payload));
+        err.status = res.status;
+        err.payload = payload;
+        throw err;
     }
 
     return payload;
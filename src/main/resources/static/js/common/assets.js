@@ -0,0 +1,10 @@
+let styles = null;
+
+// Fingerprinted URL of a stylesheet, from the manifest injected at build time (modules go through the import map)
+export function assetUrl(path) {
+    if (styles === null) {
+        const manifest = document.getElementById("asset-manifest");
+        styles = manifest ? JSON.parse(manifest.textContent) : {};
+    }
+    return styles[path] ?? path;
+}
@@ -1,7 +1,25 @@
+const BUNDLE_URL = "/templates/bundle.json";
+
+let bundle = null;
+
+// All templates in one request (revalidated through its ETag); missing in unprocessed builds
+function loadBundle() {
+    if (!bundle) {
+        bundle = fetch(BUNDLE_URL, { credentials: "same-origin" })
+            .then(res => res.ok ? res.json() : {})
+            .catch(() => ({}));
+    }
+    return bundle;
+}
+
 export async function templateFetch(url) {
-    const res = await fetch(url, { credentials: "same-origin" });
-    if (!res.ok) throw new Error(`Template non trovato: ${url}`);
-    const html = await res.text();
+    let html = (await loadBundle())[url];
+
+    if (html === undefined) {
+        const res = await fetch(url, { credentials: "same-origin" });
+        if (!res.ok) throw new Error(`Template non trovato: ${url}`);
+        html = await res.text();
+    }
 
     const t = document.createElement("template");
     t.innerHTML = html.trim();
@@ -1,9 +1,10 @@
 import { getUserData } from "../../services/userDataApi.js";
-import { getProfessorCourses, getStudentCourses } from "../../services/coursesApi.js";
+import { getProfessorCourses, getProfessorOverview, getStudentDashboard } from "../../services/coursesApi.js";
 import {
     getExamsForCourse,
     getExamsWhereStudentIsRegistered,
     registerToExam,
+    unregisterFromExam,
 } from "../../services/examsApi.js";
 
 import { templateFetch } from "../../common/template.js";
@@ -28,6 +29,8 @@ import { escapeHtml } from "../../utils/utils.js";
  *
  ** - Data loading
  *   Fetches the course list from the backend depending on the role
+ *   (students get courses and exams in a single dashboard call,
+ *   professors get exams with grading progress from the overview)
  *
  ** - Stats rendering
  *   Computes and updates page statistics (total courses, total CFU),
@@ -87,9 +90,24 @@ async function mountHome(root) {
 // -----------------------------
 
 async function loadCoursesForRole(role) {
-    return isProfessor(role)
-        ? await getProfessorCourses("desc")
-        : await getStudentCourses();
+    if (isProfessor(role)) {
+        const [courses, overview] = await Promise.all([getProfessorCourses("desc"), getProfessorOverview()]);
+        const examsByCourse = new Map((overview || []).map((c) => [c.id, c.exams]));
+
+        return courses.map((c) => ({ ...c, exams: examsByCourse.get(c.id) }));
+    }
+
+    const dashboard = await getStudentDashboard();
+    return (dashboard?.courses || []).map(fromDashboardCourse);
+}
+
+// Dashboard courses are flat; reshape them like CourseDTO so the renderers stay shared
+function fromDashboardCourse(course) {
+    return {
+        ...course,
+        professor: { name: course.professorName, surname: course.professorSurname },
+        majors: (course.majors || []).map((m) => ({ name: m.name, degreeLevel: { name: m.degreeLevel } })),
+    };
 }
 
 // -----------------------------
@@ -138,7 +156,7 @@ function renderCourseCards(courses, role) {
 
         renderCourseCard(card, course);
         renderCourseMajors(card, course);
-        bindCourseCardEvents(card, course.id, role);
+        bindCourseCardEvents(card, course, role);
     }
 }
 
@@ -174,7 +192,7 @@ function renderCourseMainFields(card, course) {
 
 function renderCourseSecondaryFields(card, course) {
     const professorName = formatProfessorName(course.professor);
-    const studentsCount = String(course.students.length);
+    const studentsCount = String(course.studentsCount ?? course.students.length);
 
     card.querySelector(".course-prof").textContent = professorName;
     card.querySelector(".course-students").textContent = studentsCount;
@@ -237,16 +255,16 @@ function bindHomeCourseSearchAndSort() {
 // Course interactions
 // -----------------------------
 
-function bindCourseCardEvents(card, courseId, role) {
+function bindCourseCardEvents(card, course, role) {
     const details = card.querySelector(".course-details");
     const openButton = card.querySelector(".open-exams");
 
     openButton.addEventListener("click", async () => {
-        await toggleCourseExams(card, courseId, role);
+        await toggleCourseExams(card, course, role);
 
         if (details) details.open = true;
 
-        focusCourseCard(card, courseId);
+        focusCourseCard(card, course.id);
     });
 }
 
@@ -271,7 +289,7 @@ function focusCourseCard(card, courseId) {
 // Exams rendering
 // -----------------------------
 
-async function toggleCourseExams(card, courseId, role) {
+async function toggleCourseExams(card, course, role) {
     const ui = getExamPanelElements(card);
 
     if (isExamPanelOpen(ui)) {
@@ -279,7 +297,7 @@ async function toggleCourseExams(card, courseId, role) {
         return;
     }
 
-    await openAndRenderExamPanel(ui, courseId, role);
+    await openAndRenderExamPanel(ui, course, role);
 }
 
 function getExamPanelElements(card) {
@@ -299,8 +317,9 @@ function closeExamPanel(ui) {
     ui.block.hidden = true;
 }
 
-async function openAndRenderExamPanel(ui, courseId, role) {
-    const exams = await getExamsForCourse(courseId);
+async function openAndRenderExamPanel(ui, course, role) {
+    const courseId = course.id;
+    const exams = course.exams ?? await getExamsForCourse(courseId);
 
     ui.block.hidden = false;
     ui.list.innerHTML = "";
@@ -313,7 +332,7 @@ async function openAndRenderExamPanel(ui, courseId, role) {
 
     ui.empty.hidden = true;
 
-    const registeredExamIds = await loadRegisteredExamIds(role, courseId);
+    const registeredExamIds = await loadRegisteredExamIds(role, course);
     const rowTemplate = await templateFetch("/templates/home/exams.html");
 
     for (const exam of exams) {
@@ -323,16 +342,22 @@ async function openAndRenderExamPanel(ui, courseId, role) {
     }
 }
 
-async function loadRegisteredExamIds(role, courseId) {
-    return isStudent(role)
-        ? await getExamsWhereStudentIsRegistered(courseId)
-        : [];
+async function loadRegisteredExamIds(role, course) {
+    if (!isStudent(role)) return [];
+
+    // Kept on the course so that registrations made here survive closing the panel
+    if (course.exams) {
+        course.registeredExamIds ??= course.exams.filter((e) => e.registered).map((e) => e.id);
+        return course.registeredExamIds;
+    }
+
+    return await getExamsWhereStudentIsRegistered(course.id);
 }
 
 function renderExamRow(row, exam, role, courseId, registeredExamIds) {
     renderExamDateTime(row, exam.date);
     renderExamLink(row, exam.id, role);
-    renderExamActions(row, { role, courseId, examId: exam.id, examDate: exam.date, registeredExamIds });
+    renderExamActions(row, { role, courseId, exam, examId: exam.id, examDate: exam.date, registeredExamIds });
 }
 
 function renderExamDateTime(row, date) {
@@ -356,12 +381,17 @@ function renderExamActions(row, ctx) {
     if (!actionsEl) return;
 
     if (!isStudent(ctx.role)) {
-        actionsEl.innerHTML = "";
+        renderExamProgress(actionsEl, ctx.exam);
         return;
     }
 
     if (ctx.registeredExamIds.includes(ctx.examId)) {
-        renderRegisteredBadge(actionsEl);
+        renderRegisteredBadge(actionsEl, ctx);
+        return;
+    }
+
+    if (ctx.exam.waitlistPosition != null) {
+        renderWaitlistBadge(actionsEl, ctx);
         return;
     }
 
@@ -373,38 +403,109 @@ function renderExamActions(row, ctx) {
     renderRegisterButton(actionsEl, ctx);
 }
 
-function renderRegisteredBadge(container) {
+function renderExamProgress(container, exam) {
+    if (exam?.verbalized == null) {
+        container.innerHTML = "";
+        return;
+    }
+
+    const toPublish = exam.notInserted + exam.inserted;
+    const published = exam.published + exam.rejected;
+
+    container.innerHTML = `<span class="pill">${toPublish} da pubblicare · ${published} pubblicati`
+        + ` · ${exam.verbalized} verbalizzati · ${exam.reports} verbali</span>`;
+}
+
+function renderRegisteredBadge(container, ctx) {
     container.innerHTML = `<span class="pill pill-ok"><span class="ok-ico"></span> Iscritto</span>`;
+
+    // Withdrawing is only possible before the exam and until a grade is entered (checked by the server)
+    if (!ctx.exam.published && canRegisterToExam(ctx.examDate)) {
+        appendUnregisterButton(container, ctx, "Annulla", () => {
+            ctx.registeredExamIds.splice(ctx.registeredExamIds.indexOf(ctx.examId), 1);
+        });
+    }
 }
 
-function renderRegisterButton(container, { examId, courseId, registeredExamIds }) {
-    container.innerHTML = `<button type="button" class="btn btn-accent btn-mini">Iscriviti</button>`;
+function renderWaitlistBadge(container, ctx) {
+    container.innerHTML = `<span class="pill">In lista d'attesa · ${ctx.exam.waitlistPosition}° posto</span>`;
+
+    appendUnregisterButton(container, ctx, "Esci", () => {
+        ctx.exam.waitlistPosition = null;
+    });
+}
+
+function appendUnregisterButton(container, ctx, label, onDone) {
+    const button = document.createElement("button");
+    button.type = "button";
+    button.className = "btn btn-mini";
+    button.textContent = label;
+
+    button.addEventListener("click", async () => {
+        button.disabled = true;
+
+        try {
+            await unregisterFromExam(ctx.examId);
+
+            onDone();
+            renderExamActions(container.closest(".exam-row") ?? container.parentElement, ctx);
+        } catch (err) {
+            console.error(err);
+            button.disabled = false;
+            alert(err.message || "Errore durante l'annullamento");
+        }
+    });
+
+    container.appendChild(button);
+}
+
+function renderRegisterButton(container, ctx) {
+    const { examId, courseId, registeredExamIds, exam } = ctx;
+    const label = registerButtonLabel(exam);
+
+    container.innerHTML = `<button type="button" class="btn btn-accent btn-mini"></button>`;
 
     const button = container.querySelector("button");
+    button.textContent = label;
     button.addEventListener("click", async () => {
         setRegisterButtonLoading(button);
 
         try {
-            await registerToExam(examId, courseId);
+            const outcome = await registerToExam(examId, courseId);
+
+            if (outcome?.waitlisted) {
+                exam.waitlistPosition = outcome.waitlistPosition;
+                renderWaitlistBadge(container, ctx);
+                return;
+            }
 
             registeredExamIds.push(examId);
-            renderRegisteredBadge(container);
+            renderRegisteredBadge(container, ctx);
         } catch (err) {
             console.error(err);
-            resetRegisterButton(button);
+            resetRegisterButton(button, label);
             alert(err.message || "Errore durante l'iscrizione");
         }
     });
 }
 
+// Full exams still accept registrations, onto the waitlist
+function registerButtonLabel(exam) {
+    if (exam?.capacity == null) return "Iscriviti";
+
+    return exam.seatsTaken >= exam.capacity
+        ? "Lista d'attesa"
+        : `Iscriviti (${exam.capacity - exam.seatsTaken} posti)`;
+}
+
 function setRegisterButtonLoading(button) {
     button.disabled = true;
     button.textContent = "Iscrizione...";
 }
 
-function resetRegisterButton(button) {
+function resetRegisterButton(button, label) {
     button.disabled = false;
-    button.textContent = "Iscriviti";
+    button.textContent = label;
 }
 
 // -----------------------------
@@ -4,11 +4,17 @@ import { renderHeader } from "../../common/header.js";
 import { ensurePageStyle } from "../../utils/pageStyle.js";
 
 import {
-    getAllExamRegistrations,
-    editRegistrationResult,
+    getExamRoster,
+    queueRegistrationResult,
+    flushGradingSession,
+    closeGradingSession,
     editAllRegistrationResults,
+    uploadExamGrades,
     publishExamResults,
     finalizeExamResults,
+    getExamSeating,
+    allocateExamSeats,
+    examSeatingExportUrl,
 } from "../../services/examsApi.js";
 
 import { getAllValidResults } from "../../services/resultApi.js";
@@ -45,6 +51,10 @@ import { formatMajor } from "../../utils/formatters.js";
  *   Fetches registrations + valid results in parallel, builds sorting context, refreshes
  *   multi-insert rows, and renders the page (or empty/error state).
  *
+ ** - Search
+ *   Filters the loaded roster on the client while the search box is not empty: every term
+ *   must prefix a word of the student's number, name, surname, email or major.
+ *
  ** - Sorting
  *   Creates ranking maps for result/status ordering, binds sortable table headers,
  *   and defines how each column value is extracted for sorting (including custom ranks).
@@ -54,18 +64,23 @@ import { formatMajor } from "../../utils/formatters.js";
  *   conditionally renders the inline edit form row when a student is in edit mode.
  *
  ** - Mutations
- *   Handles saving a single student’s result, updates the local registrations list,
- *   refreshes multi-insert eligibility, and re-renders the table/UI.
+ *   Queues a single student’s result in the server-side grading session, updates the local
+ *   registrations list, refreshes multi-insert eligibility, and re-renders the table/UI.
+ *   Buffered edits are flushed before publishing, finalizing or bulk inserting, and when leaving.
  *
  ** - Bulk actions
  *   Binds “Publish” and “Finalize” actions: publishes results and reloads,
- *   or finalizes and navigates to the generated report.
+ *   or finalizes and navigates to the generated report. Also uploads a CSV of grades and reloads.
  *
  ** - Multi insert
  *   Manages the modal for batch inserting results: open/close behavior, rendering the modal table,
  *   tracking selected values, enabling/disabling the send button, submitting the payload,
  *   and syncing the main table after successful updates.
  *
+ ** - Seating
+ *   Modal that sends the room list (name;seats;spacing per line) to the seat allocator and
+ *   lists the resulting rooms, each with a link to its CSV seat list.
+ *
  ** - Business rules (front)
  *   UI-side rules that gate editing (e.g., editable only when status is “non inserito” or “inserito”).
  *
@@ -97,8 +112,14 @@ export async function renderIscritti({ root = document.getElementById("app"), qu
 
     await loadAndRender(state);
     bindSorting(state);
+    bindRosterSearch(state);
     bindBulkActions(state);
     bindMultiInsert(state);
+    bindSeating(state);
+    bindGradingSessionClose(state);
+
+    // Conflicts and rejections of a session closed while leaving this page earlier
+    await flushGrading(state).catch(() => {});
 }
 
 // -----------------------------
@@ -111,6 +132,9 @@ function createPageState(examId) {
         sort: { key: "student.number", dir: "asc" },
         editStudentNumber: null,
 
+        // Normalized terms of the search box, null when it is empty
+        search: { terms: null, timer: null },
+
         data: { registrations: [], results: [] },
         sorting: createSortingContext([]),
 
@@ -121,6 +145,8 @@ function createPageState(examId) {
             sending: false,
         },
 
+        seating: { open: false, sending: false },
+
         ui: getUi(),
     };
 }
@@ -128,10 +154,13 @@ function createPageState(examId) {
 function getUi() {
     return {
         totalPill: document.getElementById("registrationsTotalPill"),
+        rosterSearch: document.getElementById("rosterSearch"),
         bulkActions: document.getElementById("bulkActions"),
         btnPublish: document.getElementById("btnPublish"),
         btnFinalize: document.getElementById("btnFinalize"),
         btnMultiInsert: document.getElementById("btnMultiInsert"),
+        btnUploadGrades: document.getElementById("btnUploadGrades"),
+        gradesFileInput: document.getElementById("gradesFileInput"),
 
         pageError: document.getElementById("pageError"),
         pageErrorText: document.getElementById("pageErrorText"),
@@ -155,6 +184,18 @@ function getUi() {
         multiTableWrap: document.getElementById("multiTableWrap"),
         multiTbody: document.getElementById("multiTbody"),
         multiRowTpl: document.getElementById("multiRowTpl"),
+
+        btnSeating: document.getElementById("btnSeating"),
+        seatModal: document.getElementById("seatModal"),
+        btnSeatCancel: document.getElementById("btnSeatCancel"),
+        btnSeatSend: document.getElementById("btnSeatSend"),
+        seatError: document.getElementById("seatError"),
+        seatErrorText: document.getElementById("seatErrorText"),
+        seatRooms: document.getElementById("seatRooms"),
+        seatSeparateMajors: document.getElementById("seatSeparateMajors"),
+        seatRoomsWrap: document.getElementById("seatRoomsWrap"),
+        seatRoomsBody: document.getElementById("seatRoomsBody"),
+        seatRoomRowTpl: document.getElementById("seatRoomRowTpl"),
     };
 }
 
@@ -166,12 +207,12 @@ async function loadAndRender(state) {
     try {
         hideError(state);
 
-        const [registrations, results] = await Promise.all([
-            getAllExamRegistrations(state.examId),
+        const [roster, results] = await Promise.all([
+            getExamRoster(state.examId),
             getAllValidResults(),
         ]);
 
-        state.data.registrations = registrations || [];
+        state.data.registrations = roster?.registrations || [];
         state.data.results = results || [];
         state.sorting = createSortingContext(state.data.results);
 
@@ -221,6 +262,8 @@ function renderTable(state) {
     state.ui.tbody.innerHTML = "";
 
     for (const reg of sorted) {
+        if (state.search.terms && !matchesSearch(reg, state.search.terms)) continue;
+
         renderRegistrationRow(state, reg);
 
         if (state.editStudentNumber === reg.student.number && canEditRegistration(reg)) {
@@ -229,6 +272,41 @@ function renderTable(state) {
     }
 }
 
+// -----------------------------
+// Search
+// -----------------------------
+
+const SEARCH_DEBOUNCE_MS = 150;
+
+function bindRosterSearch(state) {
+    const input = state.ui.rosterSearch;
+    if (!input) return;
+
+    input.addEventListener("input", () => {
+        clearTimeout(state.search.timer);
+        state.search.timer = setTimeout(() => runRosterSearch(state, input.value), SEARCH_DEBOUNCE_MS);
+    });
+}
+
+function runRosterSearch(state, query) {
+    const terms = searchTokens(query);
+    state.search.terms = terms.length > 0 ? terms : null;
+    renderPage(state);
+}
+
+// Every term must be a prefix of a word of the row (number, name, surname, email, major)
+function matchesSearch(reg, terms) {
+    const s = reg.student || {};
+    const words = searchTokens([s.number, s.name, s.surname, s.email, s.major?.name].join(" "));
+    return terms.every((term) => words.some((word) => word.startsWith(term)));
+}
+
+// Lowercase words without accents; an email splits into its parts, so a pasted address still matches
+function searchTokens(text) {
+    const folded = normalize(text).normalize("NFD").replace(/[\u0300-\u036f]/g, "");
+    return folded.split(/[^a-z0-9]+/).filter(Boolean);
+}
+
 // -----------------------------
 // Sorting
 // -----------------------------
@@ -375,14 +453,24 @@ function fillResultsSelect(select, results, selectedId) {
 // Mutations
 // -----------------------------
 
+// The edit is usually only queued on the server: the row is updated locally right away and
+// the outcome (new version, conflict or rejection) comes back with the next session flush.
+// When the server writes through, the new version comes back at once
 async function onSaveResult(state, registrationId, resultId) {
     try {
         hideError(state);
 
-        const updated = await editRegistrationResult(registrationId, resultId);
+        const current = state.data.registrations.find((x) => x.id === registrationId);
+        const ack = await queueRegistrationResult(state.examId, registrationId, resultId, current?.version);
 
         const idx = state.data.registrations.findIndex((x) => x.id === registrationId);
-        if (idx !== -1) state.data.registrations[idx] = updated;
+        if (idx !== -1) {
+            const result = state.data.results.find((x) => x.id === resultId);
+            const status = normalize(current.status || "") === "non inserito" ? "inserito" : current.status;
+            const version = ack?.version ?? current.version;
+
+            state.data.registrations[idx] = { ...current, result: result ?? current.result, status, version };
+        }
 
         state.editStudentNumber = null;
 
@@ -391,10 +479,66 @@ async function onSaveResult(state, registrationId, resultId) {
         renderTable(state);
         updateMultiButtonState(state);
     } catch (err) {
+        if (applyConflict(state, err)) {
+            state.editStudentNumber = null;
+            refreshMultiRows(state);
+            renderTable(state);
+            updateMultiButtonState(state);
+        }
         showError(state, err?.message || "Errore durante il salvataggio");
     }
 }
 
+// Writes the buffered edits; returns false (with the error shown) if some of them did not land
+async function flushGrading(state) {
+    const report = await flushGradingSession(state.examId);
+
+    for (const [id, version] of Object.entries(report?.versions || {})) {
+        const reg = state.data.registrations.find((x) => x.id === Number(id));
+        if (reg) reg.version = version;
+    }
+
+    const conflicts = report?.conflicts || [];
+    for (const current of conflicts) {
+        const idx = state.data.registrations.findIndex((x) => x.id === current.id);
+        if (idx !== -1) state.data.registrations[idx] = current;
+    }
+
+    const errors = Object.values(report?.errors || {});
+    if (conflicts.length === 0 && errors.length === 0) return true;
+
+    refreshMultiRows(state);
+    renderTable(state);
+    updateMultiButtonState(state);
+    showError(state, conflicts.length > 0 ? "Alcuni voti sono stati modificati da un altro utente" : errors[0]);
+
+    return false;
+}
+
+// Leaving the page closes the grading session, which writes whatever is still buffered; its
+// failures are kept by the server and shown by the next visit's flush
+function bindGradingSessionClose(state) {
+    const close = () => {
+        window.removeEventListener("hashchange", close);
+        window.removeEventListener("pagehide", close);
+        closeGradingSession(state.examId).catch(() => {});
+    };
+
+    window.addEventListener("hashchange", close);
+    window.addEventListener("pagehide", close);
+}
+
+// 409: another grader saved first, show their row instead of ours
+function applyConflict(state, err) {
+    const current = err?.status === 409 ? err.payload?.current : null;
+    if (!current) return false;
+
+    const idx = state.data.registrations.findIndex((x) => x.id === current.id);
+    if (idx !== -1) state.data.registrations[idx] = current;
+
+    return true;
+}
+
 // -----------------------------
 // Bulk actions
 // -----------------------------
@@ -403,6 +547,7 @@ function bindBulkActions(state) {
     state.ui.btnPublish?.addEventListener("click", async () => {
         try {
             hideError(state);
+            if (!(await flushGrading(state))) return;
             await publishExamResults(state.examId);
             await loadAndRender(state);
         } catch (err) {
@@ -413,12 +558,33 @@ function bindBulkActions(state) {
     state.ui.btnFinalize?.addEventListener("click", async () => {
         try {
             hideError(state);
+            if (!(await flushGrading(state))) return;
             const { reportId } = await finalizeExamResults(state.examId);
             location.hash = `#reports?reportId=${encodeURIComponent(reportId)}`;
         } catch (err) {
             showError(state, err?.message || "Errore durante la verbalizzazione");
         }
     });
+
+    state.ui.btnUploadGrades?.addEventListener("click", () => state.ui.gradesFileInput?.click());
+
+    state.ui.gradesFileInput?.addEventListener("change", async () => {
+        const file = state.ui.gradesFileInput.files?.[0];
+        state.ui.gradesFileInput.value = "";
+        if (!file) return;
+
+        try {
+            hideError(state);
+            const report = await uploadExamGrades(state.examId, file);
+            await loadAndRender(state);
+
+            if (report?.errors?.length) {
+                showError(state, `Voti caricati: ${report.updated}, righe scartate: ${report.skipped}. ${report.errors.join(" · ")}`);
+            }
+        } catch (err) {
+            showError(state, err?.message || "Errore durante il caricamento del file");
+        }
+    });
 }
 
 // -----------------------------
@@ -570,6 +736,7 @@ function countValidMultiSelections(state) {
 
 function buildBulkPayload(state) {
     const payload = [];
+    const versionById = new Map(state.data.registrations.map((r) => [r.id, r.version]));
 
     for (const [registrationId, resultIdStr] of state.multi.valuesByRegistrationId.entries()) {
         const regId = Number(registrationId);
@@ -579,7 +746,7 @@ function buildBulkPayload(state) {
         if (!Number.isFinite(resultId)) continue;
         if (resultId <= 0) continue;
 
-        payload.push({ registrationId: regId, resultId });
+        payload.push({ registrationId: regId, resultId, version: versionById.get(regId) });
     }
 
     return payload;
@@ -599,6 +766,9 @@ async function submitMulti(state) {
         state.multi.sending = true;
         updateMultiSendButtonState(state);
 
+        // The bulk update checks versions: pick up those moved by the buffered edits first
+        await flushGrading(state);
+
         const updatedRegs = await editAllRegistrationResults(payload);
 
         const byId = new Map((updatedRegs || []).map((r) => [r.id, r]));
@@ -612,6 +782,10 @@ async function submitMulti(state) {
         updateMultiButtonState(state);
     } catch (err) {
         state.multi.sending = false;
+        if (applyConflict(state, err)) {
+            refreshMultiRows(state);
+            renderPage(state);
+        }
         updateMultiSendButtonState(state);
         showMultiError(state, err?.message || "Errore durante l'invio dei voti");
     }
@@ -643,6 +817,121 @@ function hideMultiError(state) {
     setText(state.ui.multiErrorText, "");
 }
 
+// -----------------------------
+// Seating
+// -----------------------------
+
+function bindSeating(state) {
+    state.ui.btnSeating?.addEventListener("click", () => openSeatModal(state));
+
+    state.ui.btnSeatCancel?.addEventListener("click", () => closeSeatModal(state));
+
+    state.ui.seatModal?.addEventListener("click", (e) => {
+        if (e.target === state.ui.seatModal) closeSeatModal(state);
+    });
+
+    window.addEventListener("keydown", (e) => {
+        if (!state.seating.open) return;
+        if (e.key === "Escape") closeSeatModal(state);
+    });
+
+    state.ui.btnSeatSend?.addEventListener("click", async () => {
+        await submitSeating(state);
+    });
+}
+
+async function openSeatModal(state) {
+    state.seating.open = true;
+    hideSeatError(state);
+
+    state.ui.seatModal.hidden = false;
+    document.body.classList.add("modal-open");
+
+    try {
+        renderSeatRooms(state, await getExamSeating(state.examId));
+    } catch (err) {
+        showSeatError(state, err?.message || "Errore nel caricamento dei posti");
+    }
+}
+
+function closeSeatModal(state) {
+    state.seating.open = false;
+    hideSeatError(state);
+
+    state.ui.seatModal.hidden = true;
+    document.body.classList.remove("modal-open");
+}
+
+async function submitSeating(state) {
+    if (state.seating.sending) return;
+
+    let rooms;
+    try {
+        rooms = parseRooms(state.ui.seatRooms.value);
+    } catch (err) {
+        showSeatError(state, err.message);
+        return;
+    }
+
+    state.seating.sending = true;
+    state.ui.btnSeatSend.disabled = true;
+    try {
+        hideSeatError(state);
+        const plan = await allocateExamSeats(state.examId, rooms, state.ui.seatSeparateMajors.checked);
+        renderSeatRooms(state, plan);
+    } catch (err) {
+        showSeatError(state, err?.message || "Errore durante l'assegnazione dei posti");
+    } finally {
+        state.seating.sending = false;
+        state.ui.btnSeatSend.disabled = false;
+    }
+}
+
+// "Aula 3.0.1;120;1" per line; spacing defaults to 0
+function parseRooms(text) {
+    const rooms = [];
+    const lines = (text || "").split("\n").map((l) => l.trim()).filter(Boolean);
+
+    for (const [i, line] of lines.entries()) {
+        const [name, seats, spacing = "0"] = line.split(";").map((f) => f.trim());
+        const room = { name, seats: Number(seats), spacing: Number(spacing) };
+
+        if (!name || !Number.isInteger(room.seats) || !Number.isInteger(room.spacing)) {
+            throw new Error(`Riga ${i + 1} non valida: usa nome;posti;posti vuoti`);
+        }
+        rooms.push(room);
+    }
+
+    if (rooms.length === 0) throw new Error("Inserisci almeno un'aula");
+    return rooms;
+}
+
+function renderSeatRooms(state, rooms) {
+    state.ui.seatRoomsBody.innerHTML = "";
+    state.ui.seatRoomsWrap.hidden = !rooms?.length;
+
+    for (const room of rooms || []) {
+        const tr = cloneTemplateFirstChild(state.ui.seatRoomRowTpl);
+
+        setTextIn(tr, ".seat-room", room.room);
+        setTextIn(tr, ".seat-students", room.students);
+        setTextIn(tr, ".seat-range", `${room.firstSeat}–${room.lastSeat}`);
+        tr.querySelector(".seat-export").href = examSeatingExportUrl(state.examId, room.room);
+
+        state.ui.seatRoomsBody.appendChild(tr);
+    }
+}
+
+function showSeatError(state, message) {
+    state.ui.seatError.hidden = false;
+    setText(state.ui.seatErrorText, message);
+}
+
+function hideSeatError(state) {
+    state.ui.seatError.hidden = true;
+    setText(state.ui.seatErrorText, "");
+}
+
 // -----------------------------
 // Business rules (front)
 // -----------------------------
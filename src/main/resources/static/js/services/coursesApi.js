@@ -6,4 +6,12 @@ export async function getProfessorCourses({ sortDir = "desc" } = {}) {
 
 export async function getStudentCourses() {
     return apiFetch("/api/student/courses");
-}
\ No newline at end of file
+}
+
+export async function getStudentDashboard() {
+    return apiFetch("/api/student/dashboard");
+}
+
+export async function getProfessorOverview() {
+    return apiFetch("/api/professor/overview");
+}
@@ -8,44 +8,93 @@ export async function getExamsWhereStudentIsRegistered(courseId) {
     return await apiFetch(`/api/student/exams/registered?courseId=${encodeURIComponent(courseId)}`);
 }
 
+// { waitlisted, waitlistPosition }: a full exam puts the student on its waitlist
 export async function registerToExam(examId, courseId) {
-    await apiFetch(
+    return await apiFetch(
         `/api/student/exam/${encodeURIComponent(examId)}/register`,
         {
             method: "POST",
-            body: JSON.stringify(courseId)
+            body: JSON.stringify(courseId),
+            idempotent: true
         }
     )
 }
 
+// Also leaves the waitlist; a freed seat goes to the first student waiting
+export async function unregisterFromExam(examId) {
+    await apiFetch(
+        `/api/student/exam/${encodeURIComponent(examId)}/register`,
+        { method: "DELETE" }
+    );
+}
+
 // -----------------------------
 // Read
 // -----------------------------
 
-export async function getAllExamRegistrations(examId) {
-    return await apiFetch(`/api/professor/exam?examId=${encodeURIComponent(examId)}`);
+export async function getExamRoster(examId) {
+    return await apiFetch(`/api/professor/exam/stream?examId=${encodeURIComponent(examId)}`);
 }
 
 // -----------------------------
 // Mutations
 // -----------------------------
 
-export async function editRegistrationResult(registrationId, resultId) {
+export async function editRegistrationResult(registrationId, resultId, version) {
+    const versionParam = version != null ? `&version=${encodeURIComponent(version)}` : "";
+
     return await apiFetch(
-        `/api/professor/registrations/${encodeURIComponent(registrationId)}/result?resultId=${encodeURIComponent(resultId)}`,
+        `/api/professor/registrations/${encodeURIComponent(registrationId)}/result?resultId=${encodeURIComponent(resultId)}${versionParam}`,
         { method: "PATCH" }
     );
 }
 
+// -----------------------------
+// Grading session (edits are acknowledged at once and written in batches by the server)
+// -----------------------------
+
+export async function queueRegistrationResult(examId, registrationId, resultId, version) {
+    const versionParam = version != null ? `&version=${encodeURIComponent(version)}` : "";
+
+    return await apiFetch(
+        `/api/professor/exam/${encodeURIComponent(examId)}/grading/${encodeURIComponent(registrationId)}?resultId=${encodeURIComponent(resultId)}${versionParam}`,
+        { method: "PUT" }
+    );
+}
+
+export async function flushGradingSession(examId) {
+    return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/grading/flush`, { method: "POST" });
+}
+
+// keepalive: also sent while the page is being left
+export async function closeGradingSession(examId) {
+    return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/grading`, {
+        method: "DELETE",
+        keepalive: true,
+    });
+}
+
+export async function uploadExamGrades(examId, file) {
+    const body = new FormData();
+    body.append("file", file);
+
+    return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/grades`, {
+        method: "POST",
+        body,
+    });
+}
+
 export async function publishExamResults(examId) {
     return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/publish`, {
         method: "POST",
+        idempotent: true,
     });
 }
 
 export async function finalizeExamResults(examId) {
     return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/finalize`, {
         method: "POST",
+        idempotent: true,
     });
 }
 
@@ -54,7 +103,28 @@ export async function editAllRegistrationResults(updates) {
         "/api/professor/registrations/results",
         {
             method: "PATCH",
-            body: JSON.stringify(updates)
+            body: JSON.stringify(updates),
+            idempotent: true
         }
     );
-}
\ No newline at end of file
+}
+
+// -----------------------------
+// Seating
+// -----------------------------
+
+export async function getExamSeating(examId) {
+    return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/seating`);
+}
+
+// rooms: [{ name, seats, spacing }]; replaces the current plan
+export async function allocateExamSeats(examId, rooms, separateMajors) {
+    return await apiFetch(`/api/professor/exam/${encodeURIComponent(examId)}/seating`, {
+        method: "POST",
+        body: JSON.stringify({ rooms, separateMajors }),
+    });
+}
+
+export function examSeatingExportUrl(examId, room) {
+    return `/api/professor/exam/${encodeURIComponent(examId)}/seating/export?room=${encodeURIComponent(room)}`;
+}
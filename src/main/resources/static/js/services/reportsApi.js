@@ -5,5 +5,5 @@ export async function getAllReportsByCourseId(courseId) {
 }
 
 export async function getReportById(reportId) {
-    return await apiFetch(`/api/professor/report?reportId=${encodeURIComponent(reportId)}`);
+    return await apiFetch(`/api/professor/report/stream?reportId=${encodeURIComponent(reportId)}`);
 }
\ No newline at end of file
@@ -1,4 +1,7 @@
+import { assetUrl } from "../common/assets.js";
+
 export function ensurePageStyle(id, href) {
+    href = assetUrl(href);
     let link = document.getElementById(id);
 
     if (!link) {
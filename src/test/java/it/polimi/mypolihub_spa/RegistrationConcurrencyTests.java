@@ -0,0 +1,419 @@
+package it.polimi.mypolihub_spa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import it.polimi.mypolihub_spa.DTO.ExamRegistrationDTO;
+import it.polimi.mypolihub_spa.entity.DefaultValues;
+import it.polimi.mypolihub_spa.exception.RegistrationConflictException;
+import it.polimi.mypolihub_spa.service.ExamService;
+
+/**
+ * Races and guards on the write paths: parallel graders on the same registration, a grade
+ * edit racing the publication of its exam, a decline of a failing result, a double-clicked
+ * finalize on the same exam, a registration rush on a full exam and the promotion of a
+ * stale waitlist entry.
+ */
+@SpringBootTest
+class RegistrationConcurrencyTests {
+
+	private static final int GRADERS = 8;
+	private static final int RACE_ROUNDS = 20;
+
+	@Autowired
+	private ExamService examService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentGradersDoNotLoseUpdates() throws Exception {
+		List<Map<String, Object>> candidates = jdbcTemplate.queryForList("""
+				SELECT r.id, r.version, r.result_id, r.status_id, c.professor_id
+				FROM registrations r
+				JOIN exams e ON e.id = r.exam_id
+				JOIN courses c ON c.id = e.course_id
+				WHERE r.status_id IN (?, ?)
+				LIMIT 1
+				""", DefaultValues.STATUS_NON_INSERITO_ID, DefaultValues.STATUS_INSERITO_ID);
+		assumeTrue(!candidates.isEmpty(), "No editable registration in the database");
+
+		Map<String, Object> row = candidates.get(0);
+		int registrationId = ((Number) row.get("id")).intValue();
+		int version = ((Number) row.get("version")).intValue();
+		int professorId = ((Number) row.get("professor_id")).intValue();
+
+		List<Integer> resultIds = jdbcTemplate.queryForList(
+				"SELECT id FROM results WHERE id >= ? AND id <> ? ORDER BY id LIMIT ?", Integer.class,
+				DefaultValues.RESULT_18_ID, row.get("result_id"), GRADERS);
+		assumeTrue(!resultIds.isEmpty(), "No results in the database");
+
+		AtomicInteger conflicts = new AtomicInteger();
+		ConcurrentLinkedQueue<Integer> written = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(GRADERS);
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < GRADERS; i++) {
+				int resultId = resultIds.get(i % resultIds.size());
+
+				futures.add(pool.submit(() -> {
+					start.await();
+					try {
+						examService.setResult(professorId, registrationId, resultId, version);
+						written.add(resultId);
+					} catch (RegistrationConflictException | OptimisticLockingFailureException e) {
+						conflicts.incrementAndGet();
+					}
+					return null;
+				}));
+			}
+
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+
+			assertThat(written).hasSize(1);
+			assertThat(conflicts.get()).isEqualTo(GRADERS - 1);
+
+			Map<String, Object> after = jdbcTemplate.queryForMap(
+					"SELECT version, result_id FROM registrations WHERE id = ?", registrationId);
+			assertThat(((Number) after.get("version")).intValue()).isEqualTo(version + 1);
+			assertThat(((Number) after.get("result_id")).intValue()).isEqualTo(written.peek());
+		} finally {
+			pool.shutdownNow();
+			jdbcTemplate.update(
+					"UPDATE registrations SET result_id = ?, status_id = ?, version = version + 1 WHERE id = ?",
+					row.get("result_id"), row.get("status_id"), registrationId);
+		}
+	}
+
+	@Test
+	void decliningAFailingResultIsRejected() {
+		List<Map<String, Object>> candidates = jdbcTemplate.queryForList("""
+				SELECT id, student_id, exam_id, status_id, result_id, version
+				FROM registrations
+				WHERE report_id IS NULL
+				LIMIT 1
+				""");
+		assumeTrue(!candidates.isEmpty(), "No open registration in the database");
+
+		List<Integer> failingResults = jdbcTemplate.queryForList(
+				"SELECT id FROM results WHERE id < ? ORDER BY id DESC LIMIT 1", Integer.class, DefaultValues.RESULT_18_ID);
+		assumeTrue(!failingResults.isEmpty(), "No failing result in the database");
+
+		Map<String, Object> row = candidates.get(0);
+		int registrationId = ((Number) row.get("id")).intValue();
+		int studentId = ((Number) row.get("student_id")).intValue();
+		int examId = ((Number) row.get("exam_id")).intValue();
+
+		try {
+			jdbcTemplate.update("UPDATE registrations SET status_id = ?, result_id = ? WHERE id = ?",
+					DefaultValues.STATUS_PUBBLICATO_ID, failingResults.get(0), registrationId);
+			Map<String, Object> before = jdbcTemplate.queryForMap(
+					"SELECT status_id, result_id, version FROM registrations WHERE id = ?", registrationId);
+
+			assertThatThrownBy(() -> examService.declineExamResult(studentId, examId))
+					.isInstanceOf(IllegalArgumentException.class);
+
+			assertThat(jdbcTemplate.queryForMap(
+					"SELECT status_id, result_id, version FROM registrations WHERE id = ?", registrationId))
+					.isEqualTo(before);
+		} finally {
+			jdbcTemplate.update("UPDATE registrations SET status_id = ?, result_id = ?, version = ? WHERE id = ?",
+					row.get("status_id"), row.get("result_id"), row.get("version"), registrationId);
+		}
+	}
+
+	@Test
+	void doubleClickedFinalizeCreatesOneReport() throws Exception {
+		List<Map<String, Object>> candidates = jdbcTemplate.queryForList("""
+				SELECT r.exam_id, c.professor_id
+				FROM registrations r
+				JOIN exams e ON e.id = r.exam_id
+				JOIN courses c ON c.id = e.course_id
+				WHERE r.status_id IN (?, ?) AND r.report_id IS NULL
+				LIMIT 1
+				""", DefaultValues.STATUS_PUBBLICATO_ID, DefaultValues.STATUS_RIFIUTATO_ID);
+		assumeTrue(!candidates.isEmpty(), "No exam waiting to be finalized");
+
+		int examId = ((Number) candidates.get(0).get("exam_id")).intValue();
+		int professorId = ((Number) candidates.get(0).get("professor_id")).intValue();
+
+		List<Map<String, Object>> pending = jdbcTemplate.queryForList("""
+				SELECT id, status_id, result_id
+				FROM registrations
+				WHERE exam_id = ? AND status_id IN (?, ?) AND report_id IS NULL
+				""", examId, DefaultValues.STATUS_PUBBLICATO_ID, DefaultValues.STATUS_RIFIUTATO_ID);
+		Integer reportsBefore = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM reports WHERE exam_id = ?", Integer.class, examId);
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		Integer reportId = null;
+
+		try {
+			Future<Integer> first = pool.submit(() -> {
+				start.await();
+				return examService.finalizeResults(professorId, examId);
+			});
+			Future<Integer> second = pool.submit(() -> {
+				start.await();
+				return examService.finalizeResults(professorId, examId);
+			});
+
+			start.countDown();
+			reportId = first.get();
+
+			assertThat(second.get()).isEqualTo(reportId);
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM reports WHERE exam_id = ?", Integer.class, examId))
+					.isEqualTo(reportsBefore + 1);
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM registrations WHERE report_id = ?", Integer.class, reportId))
+					.isEqualTo(pending.size());
+		} finally {
+			pool.shutdownNow();
+			for (Map<String, Object> row : pending) {
+				jdbcTemplate.update(
+						"UPDATE registrations SET status_id = ?, result_id = ?, report_id = NULL, version = version + 1 WHERE id = ?",
+						row.get("status_id"), row.get("result_id"), row.get("id"));
+			}
+			if (reportId != null) {
+				jdbcTemplate.update("DELETE FROM reports WHERE id = ?", reportId);
+			}
+		}
+	}
+
+	@Test
+	void gradeEditRacingPublishIsPublishedOrRejected() throws Exception {
+		List<Map<String, Object>> candidates = jdbcTemplate.queryForList("""
+				SELECT r.id, r.exam_id, r.result_id, c.professor_id
+				FROM registrations r
+				JOIN exams e ON e.id = r.exam_id
+				JOIN courses c ON c.id = e.course_id
+				WHERE r.status_id = ?
+				LIMIT 1
+				""", DefaultValues.STATUS_INSERITO_ID);
+		assumeTrue(!candidates.isEmpty(), "No inserted registration in the database");
+
+		Map<String, Object> row = candidates.get(0);
+		int registrationId = ((Number) row.get("id")).intValue();
+		int examId = ((Number) row.get("exam_id")).intValue();
+		int professorId = ((Number) row.get("professor_id")).intValue();
+		int originalResultId = ((Number) row.get("result_id")).intValue();
+
+		List<Integer> otherResults = jdbcTemplate.queryForList(
+				"SELECT id FROM results WHERE id >= ? AND id <> ? ORDER BY id LIMIT 1", Integer.class,
+				DefaultValues.RESULT_18_ID, originalResultId);
+		assumeTrue(!otherResults.isEmpty(), "No results in the database");
+		int editedResultId = otherResults.get(0);
+
+		// publish moves every inserted registration of the exam: put them all back afterwards
+		List<Integer> inserted = jdbcTemplate.queryForList(
+				"SELECT id FROM registrations WHERE exam_id = ? AND status_id = ?", Integer.class,
+				examId, DefaultValues.STATUS_INSERITO_ID);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+
+		try {
+			for (int round = 0; round < RACE_ROUNDS; round++) {
+				resetToInserted(inserted);
+				jdbcTemplate.update("UPDATE registrations SET result_id = ? WHERE id = ?", originalResultId, registrationId);
+
+				CountDownLatch start = new CountDownLatch(1);
+				Future<?> publish = pool.submit(() -> {
+					start.await();
+					examService.publishResults(professorId, examId);
+					return null;
+				});
+				Future<Boolean> edit = pool.submit(() -> {
+					start.await();
+					try {
+						examService.setResult(professorId, registrationId, editedResultId, null);
+						return true;
+					} catch (RegistrationConflictException | IllegalArgumentException e) {
+						return false;
+					}
+				});
+
+				start.countDown();
+				publish.get();
+				boolean edited = edit.get();
+
+				// Either the edit landed first and was published with the rest, or it was refused:
+				// never a published row with an unpublished grade, nor an edit reported but lost
+				Map<String, Object> after = jdbcTemplate.queryForMap(
+						"SELECT status_id, result_id FROM registrations WHERE id = ?", registrationId);
+				assertThat(((Number) after.get("status_id")).intValue()).isEqualTo(DefaultValues.STATUS_PUBBLICATO_ID);
+				assertThat(((Number) after.get("result_id")).intValue())
+						.isEqualTo(edited ? editedResultId : originalResultId);
+			}
+		} finally {
+			pool.shutdownNow();
+			resetToInserted(inserted);
+			jdbcTemplate.update("UPDATE registrations SET result_id = ? WHERE id = ?", originalResultId, registrationId);
+		}
+	}
+
+	@Test
+	void registrationRushDoesNotOverbook() throws Exception {
+		int capacity = 2;
+
+		List<Integer> courseIds = jdbcTemplate.queryForList("""
+				SELECT course_id
+				FROM courses_students
+				GROUP BY course_id
+				HAVING COUNT(*) >= ?
+				LIMIT 1
+				""", Integer.class, GRADERS);
+		assumeTrue(!courseIds.isEmpty(), "No course with enough students in the database");
+
+		int courseId = courseIds.get(0);
+		List<Integer> studentIds = jdbcTemplate.queryForList(
+				"SELECT student_id FROM courses_students WHERE course_id = ? ORDER BY student_id LIMIT ?",
+				Integer.class, courseId, GRADERS);
+
+		int examId = insertExam(courseId, capacity);
+
+		ConcurrentLinkedQueue<Long> positions = new ConcurrentLinkedQueue<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(GRADERS);
+
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Integer studentId : studentIds) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					ExamRegistrationDTO outcome = examService.registerStudentForExam(studentId, examId);
+					if (outcome.waitlisted()) {
+						positions.add(outcome.waitlistPosition());
+					}
+					return null;
+				}));
+			}
+
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+
+			assertThat(registeredStudents(examId)).hasSize(capacity);
+			assertThat(positions).containsExactlyInAnyOrderElementsOf(
+					LongStream.rangeClosed(1, GRADERS - capacity).boxed().toList());
+			assertThat(jdbcTemplate.queryForObject("SELECT seats_taken FROM exams WHERE id = ?", Integer.class, examId))
+					.isEqualTo(capacity);
+
+			// A withdrawal hands the seat to the head of the waitlist
+			Integer head = jdbcTemplate.queryForObject(
+					"SELECT student_id FROM exam_waitlist WHERE exam_id = ? ORDER BY id LIMIT 1", Integer.class, examId);
+			examService.unregisterStudentFromExam(registeredStudents(examId).get(0), examId);
+
+			assertThat(registeredStudents(examId)).hasSize(capacity).contains(head);
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM exam_waitlist WHERE exam_id = ?", Integer.class, examId))
+					.isEqualTo(GRADERS - capacity - 1);
+		} finally {
+			pool.shutdownNow();
+			jdbcTemplate.update("DELETE FROM exam_waitlist WHERE exam_id = ?", examId);
+			jdbcTemplate.update("DELETE FROM registrations WHERE exam_id = ?", examId);
+			jdbcTemplate.update("DELETE FROM exams WHERE id = ?", examId);
+		}
+	}
+
+	@Test
+	void promotionSkipsWaitlistEntriesOfRegisteredStudents() {
+		List<Integer> courseIds = jdbcTemplate.queryForList("""
+				SELECT course_id
+				FROM courses_students
+				GROUP BY course_id
+				HAVING COUNT(*) >= 3
+				LIMIT 1
+				""", Integer.class);
+		assumeTrue(!courseIds.isEmpty(), "No course with enough students in the database");
+
+		int courseId = courseIds.get(0);
+		List<Integer> studentIds = jdbcTemplate.queryForList(
+				"SELECT student_id FROM courses_students WHERE course_id = ? ORDER BY student_id LIMIT 3",
+				Integer.class, courseId);
+		int registered = studentIds.get(0);
+		int leaving = studentIds.get(1);
+		int waiting = studentIds.get(2);
+
+		int examId = insertExam(courseId, 2);
+
+		try {
+			examService.registerStudentForExam(registered, examId);
+			examService.registerStudentForExam(leaving, examId);
+
+			// What a double submit used to leave behind: a registered student also on the waitlist,
+			// ahead of the one really waiting
+			jdbcTemplate.update("INSERT INTO exam_waitlist (exam_id, student_id, created_at) VALUES (?, ?, ?)",
+					examId, registered, LocalDateTime.now());
+			assertThat(examService.registerStudentForExam(waiting, examId).waitlisted()).isTrue();
+
+			examService.unregisterStudentFromExam(leaving, examId);
+
+			assertThat(registeredStudents(examId)).containsExactlyInAnyOrder(registered, waiting);
+			assertThat(jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM exam_waitlist WHERE exam_id = ?", Integer.class, examId))
+					.isZero();
+			assertThat(jdbcTemplate.queryForObject("SELECT seats_taken FROM exams WHERE id = ?", Integer.class, examId))
+					.isEqualTo(2);
+		} finally {
+			jdbcTemplate.update("DELETE FROM exam_waitlist WHERE exam_id = ?", examId);
+			jdbcTemplate.update("DELETE FROM registrations WHERE exam_id = ?", examId);
+			jdbcTemplate.update("DELETE FROM exams WHERE id = ?", examId);
+		}
+	}
+
+	private int insertExam(int courseId, int capacity) {
+		KeyHolder keyHolder = new GeneratedKeyHolder();
+		jdbcTemplate.update(connection -> {
+			PreparedStatement ps = connection.prepareStatement(
+					"INSERT INTO exams (date, course_id, capacity) VALUES (?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+			ps.setObject(1, LocalDateTime.now().plusDays(30));
+			ps.setInt(2, courseId);
+			ps.setInt(3, capacity);
+			return ps;
+		}, keyHolder);
+		return keyHolder.getKey().intValue();
+	}
+
+	private void resetToInserted(List<Integer> registrationIds) {
+		for (Integer id : registrationIds) {
+			jdbcTemplate.update("UPDATE registrations SET status_id = ?, version = version + 1 WHERE id = ?",
+					DefaultValues.STATUS_INSERITO_ID, id);
+		}
+	}
+
+	private List<Integer> registeredStudents(int examId) {
+		return jdbcTemplate.queryForList("SELECT student_id FROM registrations WHERE exam_id = ? ORDER BY id",
+				Integer.class, examId);
+	}
+}
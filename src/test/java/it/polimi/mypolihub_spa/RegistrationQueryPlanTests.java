@@ -0,0 +1,101 @@
+package it.polimi.mypolihub_spa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Runs EXPLAIN on the statements behind the hot RegistrationRepository queries
+ * against the seeded database and fails on full table scans of the hot tables.
+ */
+@SpringBootTest
+class RegistrationQueryPlanTests {
+
+	private static final Set<String> HOT_TABLES = Set.of("registrations", "courses_students", "users");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void refreshStatistics() {
+		jdbcTemplate.queryForList("ANALYZE TABLE registrations, courses_students, users");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			// publishAllInserted
+			"UPDATE registrations r SET r.status_id = 3 WHERE r.exam_id = 1 AND r.status_id = 2",
+			// finalizeInto
+			"""
+			UPDATE registrations r
+			SET r.result_id = CASE WHEN r.status_id = 4 THEN 3 ELSE r.result_id END, r.status_id = 5, r.report_id = 1
+			WHERE r.exam_id = 1 AND r.status_id IN (3, 4) AND r.report_id IS NULL
+			""",
+			// setResultIfEditable
+			"""
+			UPDATE registrations r
+			JOIN exams e ON e.id = r.exam_id
+			JOIN courses c ON c.id = e.course_id
+			SET r.result_id = 5, r.status_id = 2, r.version = r.version + 1
+			WHERE r.id = 1 AND c.professor_id = 1 AND r.status_id IN (1, 2) AND r.version = 0
+			""",
+			// declineIfPublished
+			"UPDATE registrations r SET r.status_id = 4, r.version = r.version + 1 WHERE r.student_id = 1 AND r.exam_id = 1 AND r.status_id IN (3) AND r.result_id >= 5 AND r.report_id IS NULL",
+			// deleteIfNotGraded
+			"""
+			DELETE r FROM registrations r
+			JOIN exams e ON e.id = r.exam_id
+			WHERE r.student_id = 1 AND r.exam_id = 1 AND r.status_id = 1 AND e.date > NOW()
+			""",
+			// existsByExam_IdAndStatus_IdInAndReportIsNull
+			"SELECT r.id FROM registrations r WHERE r.exam_id = 1 AND r.status_id IN (3, 4) AND r.report_id IS NULL LIMIT 1",
+			// findByExam_Id
+			"SELECT r.id FROM registrations r WHERE r.exam_id = 1",
+			// findByReport_Id
+			"SELECT r.id FROM registrations r WHERE r.report_id = 1",
+			// findByStudent_IdAndExam_Id / existsByStudent_IdAndExam_Id
+			"SELECT r.id FROM registrations r WHERE r.student_id = 1 AND r.exam_id = 1",
+			// findRegisteredExamIdsByStudentAndCourse
+			"SELECT r.exam_id FROM registrations r JOIN exams e ON e.id = r.exam_id WHERE r.student_id = 1 AND e.course_id = 1",
+			// findByStudents_IdOrderByNameDesc
+			"SELECT c.id FROM courses c JOIN courses_students cs ON cs.course_id = c.id WHERE cs.student_id = 1",
+			// findByEmail
+			"SELECT u.id FROM users u WHERE u.email = 'mario.rossi@mail.polimi.it'"
+	})
+	void hotQueriesDoNotScanHotTables(String sql) {
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql);
+
+		List<Map<String, Object>> fullScans = plan.stream()
+				.filter(row -> HOT_TABLES.contains(tableOf(row)))
+				.filter(row -> "ALL".equals(row.get("type")))
+				.toList();
+
+		assertThat(fullScans)
+				.as("Full table scan in plan for: %s%nPlan: %s", sql.strip(), plan)
+				.isEmpty();
+	}
+
+	private String tableOf(Map<String, Object> row) {
+		Object table = row.get("table");
+		if (table == null) {
+			return null;
+		}
+
+		String name = table.toString();
+		return switch (name) {
+			case "r" -> "registrations";
+			case "cs" -> "courses_students";
+			case "u" -> "users";
+			default -> name;
+		};
+	}
+}
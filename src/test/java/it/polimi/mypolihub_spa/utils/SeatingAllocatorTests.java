@@ -0,0 +1,107 @@
+package it.polimi.mypolihub_spa.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import it.polimi.mypolihub_spa.utils.SeatingAllocator.Assignment;
+import it.polimi.mypolihub_spa.utils.SeatingAllocator.Room;
+
+class SeatingAllocatorTests {
+
+	private record Person(int id, int major) {
+	}
+
+	@Test
+	void roomsAreFilledInProportionToTheirUsableSeats() {
+		// Usable seats: 50, 30 and 20 (100 in total), 70 people
+		List<Room> rooms = List.of(new Room("A", 99, 1), new Room("B", 30, 0), new Room("C", 58, 2));
+
+		Map<String, Long> perRoom = countByRoom(SeatingAllocator.allocate(people(70, 1, 0), rooms, null));
+
+		assertThat(perRoom).containsExactlyInAnyOrderEntriesOf(Map.of("A", 35L, "B", 21L, "C", 14L));
+	}
+
+	@Test
+	void largestRemaindersTakeTheLeftoverPeople() {
+		// Exact shares 3.33 each: one room gets the leftover, none goes over its seats
+		List<Room> rooms = List.of(new Room("A", 5, 0), new Room("B", 5, 0), new Room("C", 5, 0));
+
+		List<Assignment<Person>> assignments = SeatingAllocator.allocate(people(10, 1, 0), rooms, null);
+
+		assertThat(countByRoom(assignments).values()).containsExactlyInAnyOrder(4L, 3L, 3L);
+		assertThat(assignments).allSatisfy(a -> assertThat(a.seat()).isBetween(1, a.room().seats()));
+	}
+
+	@Test
+	void spacingLeavesEmptySeatsBetweenPeople() {
+		List<Assignment<Person>> assignments = SeatingAllocator.allocate(people(4, 1, 0),
+				List.of(new Room("A", 10, 2)), null);
+
+		assertThat(assignments).extracting(Assignment::seat).containsExactly(1, 4, 7, 10);
+	}
+
+	@Test
+	void neighboursNeverShareAMajorWhenSeparable() {
+		List<Room> rooms = List.of(new Room("A", 120, 1), new Room("B", 80, 0));
+
+		// Three majors, none with more than half of the people
+		List<Assignment<Person>> assignments = SeatingAllocator.allocate(people(120, 3, 1), rooms, Person::major);
+
+		assertThat(sameMajorNeighbours(assignments)).isZero();
+	}
+
+	@Test
+	void tooFewSeatsIsRejected() {
+		assertThatThrownBy(() -> SeatingAllocator.allocate(people(11, 1, 0), List.of(new Room("A", 20, 1)), null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void fiveThousandPeopleGetDistinctSeats() {
+		List<Room> rooms = List.of(new Room("A", 2000, 1), new Room("B", 3001, 1), new Room("C", 5000, 1));
+		List<Assignment<Person>> assignments = SeatingAllocator.allocate(people(5000, 12, 7), rooms, Person::major);
+
+		assertThat(assignments).hasSize(5000);
+
+		Set<String> seats = new HashSet<>();
+		assertThat(assignments).allSatisfy(a -> assertThat(seats.add(a.room().name() + "#" + a.seat())).isTrue());
+		assertThat(sameMajorNeighbours(assignments)).isZero();
+	}
+
+	// -----------------------------
+
+	private static List<Person> people(int count, int majors, long seed) {
+		Random random = new Random(seed);
+		List<Person> people = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			people.add(new Person(i, random.nextInt(majors)));
+		}
+		return people;
+	}
+
+	private static Map<String, Long> countByRoom(List<Assignment<Person>> assignments) {
+		return assignments.stream().collect(Collectors.groupingBy(a -> a.room().name(), Collectors.counting()));
+	}
+
+	private static int sameMajorNeighbours(List<Assignment<Person>> assignments) {
+		int count = 0;
+		for (int i = 1; i < assignments.size(); i++) {
+			Assignment<Person> previous = assignments.get(i - 1);
+			Assignment<Person> current = assignments.get(i);
+			if (previous.room() == current.room() && previous.person().major() == current.person().major()) {
+				count++;
+			}
+		}
+		return count;
+	}
+}